@@ -0,0 +1,70 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Compares the {@link ItemBuilder.Backend}s on builders that only use properties supported by both.
+ * Run with {@code -prof gc} to compare the allocations as well.
+ */
+public class BackendBenchmark extends ServerBenchmark {
+
+    @Param({"ITEM_META", "DATA_COMPONENTS"})
+    public ItemBuilder.Backend backend;
+
+    private List<Component> lore;
+    private Pattern pattern;
+    private PotionEffect effect;
+
+    @Override
+    protected void prepare() {
+        ItemBuilder.setBackend(backend);
+        lore = List.of(Component.text("First"), Component.text("Second"), Component.text("Third"));
+        pattern = new Pattern(DyeColor.WHITE, PatternType.CROSS);
+        effect = new PotionEffect(PotionEffectType.SPEED, 200, 1);
+    }
+
+    @TearDown
+    public void resetBackend() {
+        ItemBuilder.setBackend(ItemBuilder.Backend.ITEM_META);
+    }
+
+    @Benchmark
+    public ItemStack buildDecorated() {
+        return ItemBuilder.item(Material.DIAMOND_SWORD)
+                .name(Component.text("Sword"))
+                .setLore(lore)
+                .enchant(Enchantment.SHARPNESS, 5)
+                .unbreakable()
+                .build();
+    }
+
+    @Benchmark
+    public ItemStack buildBanner() {
+        return ItemBuilder.banner(DyeColor.RED)
+                .pattern(pattern)
+                .name(Component.text("Banner"))
+                .build();
+    }
+
+    @Benchmark
+    public ItemStack buildPotion() {
+        return ItemBuilder.potion()
+                .effect(effect)
+                .name(Component.text("Potion"))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
+import openbukkitutils.itembuilder.BookPaginator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paginates a 4 MiB text streamed through a reader. Divide 4 MiB by the reported time to get the throughput.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookPaginatorBenchmark extends ServerBenchmark {
+
+    private static final int SOURCE_CHARS = 4 * 1024 * 1024;
+    private static final String PARAGRAPH = "Players may not use modified clients, exploit bugs or grief the builds of "
+            + "other players. Trading is allowed in the market district only, every stall has to display its prices. "
+            + "Disputes are settled by the moderators, whose decision is final.\n\n";
+
+    private String source;
+
+    @Override
+    protected void prepare() {
+        StringBuilder text = new StringBuilder(SOURCE_CHARS + PARAGRAPH.length());
+        while (text.length() < SOURCE_CHARS) {
+            text.append(PARAGRAPH);
+        }
+        source = text.toString();
+    }
+
+    @Benchmark
+    public int paginate(Blackhole blackhole) throws IOException {
+        BookPaginator paginator = new BookPaginator(blackhole::consume);
+        paginator.append(new StringReader(source), Style.empty());
+        return paginator.finish();
+    }
+
+    @Benchmark
+    public int paginateComponent(Blackhole blackhole) {
+        BookPaginator paginator = new BookPaginator(blackhole::consume);
+        return paginator.append(Component.text(source)).finish();
+    }
+}
@@ -0,0 +1,166 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemCache;
+import openbukkitutils.itembuilder.ItemSpec;
+import openbukkitutils.itembuilder.ItemTemplate;
+import openbukkitutils.itembuilder.LoreTemplate;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Benchmarks the core {@link ItemBuilder} operations.
+ */
+public class BuildBenchmark extends ServerBenchmark {
+
+    private static final Function<Component, Component> FORMATTER =
+            line -> line.color(NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false);
+
+    private final Component name = Component.text("Excalibur", NamedTextColor.GOLD);
+    private final Component extraLine = Component.text("Soulbound");
+    private List<Component> lore;
+    private Map<Enchantment, Integer> enchantments;
+    private ItemTemplate template;
+    private ItemSpec spec;
+    private ItemBuilder rebuilt;
+    private final Component[] frames = {
+            Component.text("Loading", NamedTextColor.GRAY),
+            Component.text("Loading.", NamedTextColor.GRAY),
+            Component.text("Loading..", NamedTextColor.GRAY),
+            Component.text("Loading...", NamedTextColor.GRAY)};
+    private int frame;
+    private final ItemCache cache = new ItemCache(64);
+    private final LoreTemplate loreTemplate = LoreTemplate.builder()
+            .line(Style.style(NamedTextColor.GRAY), "Price: {price} coins")
+            .line(Style.style(NamedTextColor.GRAY), "Seller: {owner}")
+            .line(Style.style(NamedTextColor.GRAY), "Stock: {stock}")
+            .staticLine(Component.empty())
+            .staticLine(Component.text("Click to buy", NamedTextColor.YELLOW))
+            .build();
+    private final Map<String, Component> placeholders = Map.of(
+            "price", Component.text(250),
+            "owner", Component.text("Notch"),
+            "stock", Component.text(12));
+
+    @Override
+    protected void prepare() {
+        lore = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            lore.add(Component.text("Lore line " + i));
+        }
+        enchantments = Map.of(
+                Enchantment.SHARPNESS, 5,
+                Enchantment.UNBREAKING, 3,
+                Enchantment.FIRE_ASPECT, 2,
+                Enchantment.LOOTING, 3);
+        template = decorated().toTemplate();
+        spec = ItemSpec.spec(Material.DIAMOND_SWORD)
+                .name(name)
+                .lore(lore)
+                .enchant(Enchantment.SHARPNESS, 5)
+                .unbreakable()
+                .build();
+        rebuilt = decorated();
+        rebuilt.build();
+    }
+
+    private ItemBuilder decorated() {
+        return ItemBuilder.item(Material.DIAMOND_SWORD)
+                .name(name)
+                .setLore(lore)
+                .enchant(Enchantment.SHARPNESS, 5)
+                .unbreakable();
+    }
+
+    @Benchmark
+    public ItemStack buildPlain() {
+        return ItemBuilder.item(Material.STONE).build();
+    }
+
+    @Benchmark
+    public ItemStack buildAmount() {
+        return ItemBuilder.item(Material.STONE, 32).build();
+    }
+
+    @Benchmark
+    public ItemStack buildDecorated() {
+        return decorated().build();
+    }
+
+    @Benchmark
+    public ItemStack setLoreFormatted() {
+        return ItemBuilder.item(Material.PAPER).setLore(FORMATTER, lore).build();
+    }
+
+    @Benchmark
+    public ItemStack setLoreTemplate() {
+        return ItemBuilder.item(Material.PAPER).setLore(loreTemplate, placeholders).build();
+    }
+
+    @Benchmark
+    public ItemStack appendLore() {
+        return ItemBuilder.item(Material.PAPER).setLore(lore).appendLore(extraLine, extraLine).build();
+    }
+
+    /**
+     * Builds a long description line by line, each line only appends to the lore buffer.
+     */
+    @Benchmark
+    public ItemStack appendLoreLineByLine() {
+        ItemBuilder builder = ItemBuilder.item(Material.PAPER);
+        for (int i = 0; i < 8; i++) {
+            for (Component line : lore) {
+                builder.appendLore(line);
+            }
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public ItemStack addEnchantments() {
+        return ItemBuilder.item(Material.DIAMOND_SWORD).addEnchantments(enchantments).build();
+    }
+
+    @Benchmark
+    public ItemStack rebuildUnchanged() {
+        return rebuilt.build();
+    }
+
+    /**
+     * An animated GUI button: one property changes between builds.
+     */
+    @Benchmark
+    public ItemStack rebuildChanged() {
+        frame = (frame + 1) % frames.length;
+        return rebuilt.name(frames[frame]).build();
+    }
+
+    @Benchmark
+    public ItemStack cachedSpec() {
+        return cache.get(spec);
+    }
+
+    /**
+     * The same factory chain as {@link #buildDecorated()}, answered from the cache.
+     */
+    @Benchmark
+    public ItemStack cachedBuilder() {
+        return decorated().buildCached(cache);
+    }
+
+    @Benchmark
+    public ItemStack templateCreate() {
+        return template.create();
+    }
+}
@@ -0,0 +1,63 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import openbukkitutils.itembuilder.ItemSpec;
+import openbukkitutils.itembuilder.ItemSpecCodec;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long encoding and decoding a catalog of 100k item specs takes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodecBenchmark extends ServerBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+
+    private List<ItemSpec> catalog;
+    private ByteBuffer encoded;
+
+    @Override
+    protected void prepare() {
+        catalog = new ArrayList<>(CATALOG_SIZE);
+        Component footer = Component.text("Click to buy", NamedTextColor.YELLOW);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            ItemSpec.Builder spec = switch (i % 3) {
+                case 0 -> ItemSpec.spec(Material.DIAMOND_SWORD)
+                        .enchant(Enchantment.SHARPNESS, 1 + i % 5)
+                        .flag(ItemFlag.HIDE_ENCHANTS);
+                case 1 -> ItemSpec.spec(Material.WHITE_BANNER)
+                        .pattern(new Pattern(DyeColor.values()[i % 16], PatternType.STRIPE_TOP));
+                default -> ItemSpec.spec(Material.PAPER).amount(1 + i % 64);
+            };
+            catalog.add(spec.name(Component.text("Item #" + i)).lore(Component.text("Price: " + i % 100), footer).build());
+        }
+        encoded = new ItemSpecCodec().encode(catalog);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeCatalog() {
+        return new ItemSpecCodec().encode(catalog);
+    }
+
+    @Benchmark
+    public void decodeCatalog(Blackhole blackhole) {
+        new ItemSpecCodec().readAll(encoded.duplicate(), blackhole::consume);
+    }
+}
@@ -0,0 +1,53 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemTemplate;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of building off the main thread: every benchmark runs on as many threads as there are cores.
+ * The correctness of concurrent builds is checked by {@code ConcurrentBuildTest}, which runs with the build.
+ */
+@Threads(Threads.MAX)
+public class ConcurrentBuildBenchmark extends ServerBenchmark {
+
+    private final Component name = Component.text("Shared");
+    private ItemTemplate template;
+
+    @Override
+    protected void prepare() {
+        template = builder().toTemplate();
+    }
+
+    private ItemBuilder builder() {
+        return ItemBuilder.item(Material.DIAMOND_SWORD)
+                .name(name)
+                .setLore(Component.text("Built concurrently"))
+                .enchant(Enchantment.SHARPNESS, 5);
+    }
+
+    @Benchmark
+    public ItemStack buildSnapshot() {
+        ItemStack item = builder().buildSnapshot();
+        if (!template.isSimilar(item)) {
+            throw new IllegalStateException("Concurrently built item differs from the template: " + item);
+        }
+        return item;
+    }
+
+    @Benchmark
+    public ItemStack templateCreate() {
+        ItemStack item = template.create();
+        // Mutating the copy must never be visible to other threads creating from the same template
+        item.setAmount(2);
+        if (template.getAmount() != 1) {
+            throw new IllegalStateException("Template was modified through a created copy");
+        }
+        return item;
+    }
+}
@@ -0,0 +1,36 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks the defensive copies handed out by {@link ItemBuilder#getItemMeta()} and {@link ItemBuilder#getItemStack()}.
+ */
+public class CopyBenchmark extends ServerBenchmark {
+
+    private ItemBuilder builder;
+
+    @Override
+    protected void prepare() {
+        builder = ItemBuilder.item(Material.DIAMOND_SWORD)
+                .name(Component.text("Copy me"))
+                .setLore(Component.text("First"), Component.text("Second"), Component.text("Third"))
+                .enchant(Enchantment.SHARPNESS, 5);
+        builder.build();
+    }
+
+    @Benchmark
+    public ItemMeta getItemMeta() {
+        return builder.getItemMeta();
+    }
+
+    @Benchmark
+    public ItemStack getItemStack() {
+        return builder.getItemStack();
+    }
+}
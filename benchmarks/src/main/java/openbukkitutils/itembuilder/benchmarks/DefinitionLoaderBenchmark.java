@@ -0,0 +1,82 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import openbukkitutils.itembuilder.ItemDefinitionLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the startup cost of loading a directory of item definitions with {@link ItemDefinitionLoader},
+ * single threaded and with one worker per core.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DefinitionLoaderBenchmark extends ServerBenchmark {
+
+    private static final int FILES = 40;
+    private static final int DEFINITIONS_PER_FILE = 1_000;
+
+    /**
+     * The parallelism of the pool, 0 for one worker per core.
+     */
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private Path directory;
+    private ForkJoinPool pool;
+    private ItemDefinitionLoader loader;
+
+    @Override
+    protected void prepare() {
+        try {
+            directory = Files.createTempDirectory("item-definitions");
+            for (int file = 0; file < FILES; file++) {
+                StringBuilder yaml = new StringBuilder();
+                for (int i = 0; i < DEFINITIONS_PER_FILE; i++) {
+                    yaml.append("item_").append(file).append('_').append(i).append(":\n")
+                            .append("  type: DIAMOND_SWORD\n")
+                            .append("  name: \"<gold>Sword ").append(i).append("\"\n")
+                            .append("  lore: [\"<gray>First line\", \"<gray>Second line\"]\n")
+                            .append("  enchantments: {sharpness: 5, unbreaking: 3}\n")
+                            .append("  flags: [HIDE_ENCHANTS]\n");
+                }
+                Files.writeString(directory.resolve("items-" + file + ".yml"), yaml);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        loader = new ItemDefinitionLoader(pool);
+    }
+
+    @TearDown
+    public void deleteDefinitions() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ItemDefinitionLoader.Result loadDirectory() throws IOException {
+        ItemDefinitionLoader.Result result = loader.loadDirectory(directory);
+        if (result.errorCount() != 0) {
+            throw new IllegalStateException(result.files().getFirst().errors().toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import openbukkitutils.itembuilder.EnchantmentSet;
+import openbukkitutils.itembuilder.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares applying an enchantment loadout one enchantment at a time with applying it as an {@link EnchantmentSet},
+ * and checking an item for the loadout with a map comparison against {@link EnchantmentSet#isContainedIn(Map)}.
+ */
+public class EnchantmentSetBenchmark extends ServerBenchmark {
+
+    @Param({"ITEM_META", "DATA_COMPONENTS"})
+    public ItemBuilder.Backend backend;
+
+    private Map<Enchantment, Integer> loadout;
+    private EnchantmentSet set;
+    private ItemStack enchanted;
+
+    @Override
+    protected void prepare() {
+        ItemBuilder.setBackend(backend);
+        loadout = new LinkedHashMap<>();
+        loadout.put(Enchantment.SHARPNESS, 5);
+        loadout.put(Enchantment.UNBREAKING, 3);
+        loadout.put(Enchantment.MENDING, 1);
+        loadout.put(Enchantment.LOOTING, 3);
+        loadout.put(Enchantment.FIRE_ASPECT, 2);
+        loadout.put(Enchantment.SWEEPING_EDGE, 3);
+        set = EnchantmentSet.of(loadout);
+        enchanted = ItemBuilder.item(Material.DIAMOND_SWORD).setEnchantments(set).build();
+    }
+
+    @TearDown
+    public void resetBackend() {
+        ItemBuilder.setBackend(ItemBuilder.Backend.ITEM_META);
+    }
+
+    @Benchmark
+    public ItemStack enchantEach() {
+        ItemBuilder builder = ItemBuilder.item(Material.DIAMOND_SWORD);
+        for (Map.Entry<Enchantment, Integer> entry : loadout.entrySet()) {
+            builder.enchant(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public ItemStack enchantSet() {
+        return ItemBuilder.item(Material.DIAMOND_SWORD).setEnchantments(set).build();
+    }
+
+    @Benchmark
+    public boolean compareMaps() {
+        return enchanted.getEnchantments().entrySet().containsAll(loadout.entrySet());
+    }
+
+    @Benchmark
+    public boolean compareSet() {
+        return set.isContainedIn(enchanted.getEnchantments());
+    }
+}
@@ -0,0 +1,54 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.InventoryWriter;
+import openbukkitutils.itembuilder.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Refreshes a 54 slot GUI in which 3 slots changed, once by writing every slot and once with {@link InventoryWriter}.
+ */
+public class InventoryWriterBenchmark extends ServerBenchmark {
+
+    private static final int SLOTS = 54;
+    private static final int[] CHANGING_SLOTS = {4, 22, 49};
+
+    private Inventory inventory;
+    private ItemStack[] refresh;
+    private int tick;
+
+    @Override
+    protected void prepare() {
+        inventory = server.createInventory(null, SLOTS);
+        refresh = new ItemStack[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            refresh[i] = ItemBuilder.item(Material.GRAY_STAINED_GLASS_PANE).name(Component.text("Slot " + i)).build();
+        }
+        inventory.setContents(refresh);
+    }
+
+    private ItemStack[] nextRefresh() {
+        tick++;
+        for (int slot : CHANGING_SLOTS) {
+            refresh[slot] = ItemBuilder.item(Material.CLOCK).name(Component.text("Tick " + tick)).build();
+        }
+        return refresh;
+    }
+
+    @Benchmark
+    public Inventory writeAll() {
+        ItemStack[] items = nextRefresh();
+        for (int i = 0; i < items.length; i++) {
+            inventory.setItem(i, items[i]);
+        }
+        return inventory;
+    }
+
+    @Benchmark
+    public InventoryWriter.Result writeChanged() {
+        return InventoryWriter.write(inventory, nextRefresh());
+    }
+}
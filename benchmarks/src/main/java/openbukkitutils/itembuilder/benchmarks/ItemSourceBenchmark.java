@@ -0,0 +1,57 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemSource;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares opening the first page of a large catalog through an {@link ItemSource} with building every item up front.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemSourceBenchmark extends ServerBenchmark {
+
+    private static final int CATALOG_SIZE = 20_000;
+    private static final int PAGE_SIZE = 45;
+
+    private final Function<Integer, ItemBuilder> entry = i -> ItemBuilder.item(Material.PAPER)
+            .name(Component.text("Entry " + i))
+            .setLore(Component.text("Price: " + i * 10));
+    private List<Integer> catalog;
+
+    @Override
+    protected void prepare() {
+        catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.add(i);
+        }
+    }
+
+    /**
+     * Prefetches on the calling thread, so the result includes building the second page.
+     */
+    @Benchmark
+    public List<ItemStack> firstPage() {
+        return new ItemSource<>(catalog, PAGE_SIZE, 1, entry, Runnable::run).page(0);
+    }
+
+    @Benchmark
+    public List<ItemStack> buildAllUpFront() {
+        List<ItemStack> items = new ArrayList<>(CATALOG_SIZE);
+        for (Integer i : catalog) {
+            items.add(entry.apply(i).build());
+        }
+        return items.subList(0, PAGE_SIZE);
+    }
+}
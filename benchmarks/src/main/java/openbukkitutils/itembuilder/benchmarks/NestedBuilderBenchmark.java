@@ -0,0 +1,125 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemTemplate;
+import org.bukkit.Color;
+import org.bukkit.DyeColor;
+import org.bukkit.FireworkEffect;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Axolotl;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.trim.ArmorTrim;
+import org.bukkit.inventory.meta.trim.TrimMaterial;
+import org.bukkit.inventory.meta.trim.TrimPattern;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks {@code build()} of every nested builder.
+ */
+public class NestedBuilderBenchmark extends ServerBenchmark {
+
+    private Pattern stripe;
+    private Pattern border;
+    private ArmorTrim trim;
+    private PotionEffect speed;
+    private FireworkEffect burst;
+    private OfflinePlayer player;
+    private final Component page = Component.text("Once upon a time...");
+    private ItemStack[] rewards;
+    private ItemTemplate nestedRewards;
+
+    @Override
+    protected void prepare() {
+        stripe = new Pattern(DyeColor.RED, PatternType.STRIPE_TOP);
+        border = new Pattern(DyeColor.BLACK, PatternType.BORDER);
+        trim = new ArmorTrim(TrimMaterial.GOLD, TrimPattern.COAST);
+        speed = new PotionEffect(PotionEffectType.SPEED, 200, 1);
+        rewards = new ItemStack[32];
+        for (int i = 0; i < rewards.length; i++) {
+            rewards[i] = new ItemStack(i % 2 == 0 ? Material.DIAMOND : Material.EMERALD);
+        }
+        nestedRewards = ItemBuilder.bundle().addItems(new ItemStack(Material.GOLD_INGOT, 8)).toTemplate();
+        burst = FireworkEffect.builder().withColor(Color.RED).with(FireworkEffect.Type.BURST).build();
+        player = server.addPlayer();
+    }
+
+    @Benchmark
+    public ItemStack damageable() {
+        return ItemBuilder.damageable(Material.IRON_PICKAXE).damage(10).build();
+    }
+
+    @Benchmark
+    public ItemStack armor() {
+        return ItemBuilder.armor(Material.DIAMOND_CHESTPLATE, trim).build();
+    }
+
+    @Benchmark
+    public ItemStack leatherArmor() {
+        return ItemBuilder.leatherArmor(Material.LEATHER_CHESTPLATE, Color.AQUA).build();
+    }
+
+    /**
+     * A material that doesn't fit, checked through the capability index without throwing.
+     */
+    @Benchmark
+    public ItemBuilder tryArmorMismatch() {
+        return ItemBuilder.tryArmor(Material.STONE);
+    }
+
+    @Benchmark
+    public ItemStack axolotlBucket() {
+        return ItemBuilder.axolotlBucket(Axolotl.Variant.BLUE).build();
+    }
+
+    @Benchmark
+    public ItemStack armorStand() {
+        return ItemBuilder.armorStand().showArms().small().build();
+    }
+
+    @Benchmark
+    public ItemStack banner() {
+        return ItemBuilder.banner(DyeColor.WHITE, stripe, border).build();
+    }
+
+    @Benchmark
+    public ItemStack shield() {
+        return ItemBuilder.shield(DyeColor.WHITE, stripe, border).build();
+    }
+
+    @Benchmark
+    public ItemStack playerHead() {
+        return ItemBuilder.playerHead(player).build();
+    }
+
+    @Benchmark
+    public ItemStack fireworkRocket() {
+        return ItemBuilder.fireworkRocket().addEffect(burst).build();
+    }
+
+    @Benchmark
+    public ItemStack writtenBook() {
+        return ItemBuilder.writtenBook().title(page).author(page).pages(page, page, page).build();
+    }
+
+    @Benchmark
+    public ItemStack enchantedBook() {
+        return ItemBuilder.enchantedBook().storeEnchant(Enchantment.MENDING, 1).build();
+    }
+
+    @Benchmark
+    public ItemStack bundle() {
+        return ItemBuilder.bundle().addItems(rewards).addItem(nestedRewards).build();
+    }
+
+    @Benchmark
+    public ItemStack potion() {
+        return ItemBuilder.potion().effect(speed).build();
+    }
+}
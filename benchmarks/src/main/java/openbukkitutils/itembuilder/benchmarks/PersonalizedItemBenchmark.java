@@ -0,0 +1,54 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.PersonalizedItem;
+import openbukkitutils.itembuilder.PlayerItemCache;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens a "your balance" button for 20 players, rendered every time and from a {@link PlayerItemCache}.
+ */
+public class PersonalizedItemBenchmark extends ServerBenchmark {
+
+    private final List<Player> players = new ArrayList<>();
+    private PersonalizedItem<ItemBuilder> balance;
+    private PlayerItemCache cache;
+    private int next;
+
+    @Override
+    protected void prepare() {
+        for (int i = 0; i < 20; i++) {
+            players.add(server.addPlayer());
+        }
+        balance = PersonalizedItem.of(ItemBuilder.item(Material.GOLD_INGOT)
+                        .name(Component.text("Your balance", NamedTextColor.GOLD))
+                        .setLore(Component.text("Shared line 1"), Component.text("Shared line 2"))
+                        .toTemplate(),
+                (builder, player) -> builder.appendLore(Component.text(player.getName() + ": 1000 coins")));
+        cache = new PlayerItemCache(MockBukkit.createMockPlugin());
+    }
+
+    private Player nextPlayer() {
+        next = (next + 1) % players.size();
+        return players.get(next);
+    }
+
+    @Benchmark
+    public ItemStack render() {
+        return balance.render(nextPlayer());
+    }
+
+    @Benchmark
+    public ItemStack cached() {
+        return cache.get(nextPlayer(), balance);
+    }
+}
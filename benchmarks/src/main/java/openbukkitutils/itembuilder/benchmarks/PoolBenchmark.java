@@ -0,0 +1,46 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemBuilderPool;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fills a 54 slot inventory's worth of items with a new builder per item and with pooled builders.
+ * Run with {@code -prof gc}: {@code gc.alloc.rate.norm} is reported per item.
+ */
+public class PoolBenchmark extends ServerBenchmark {
+
+    private static final int ITEMS = 54;
+    private static final Function<Component, Component> GRAY = line -> line.color(NamedTextColor.GRAY);
+
+    private final ItemBuilderPool<ItemBuilder> pool = new ItemBuilderPool<>(ItemBuilder::new);
+    private final ItemStack[] items = new ItemStack[ITEMS];
+    private final List<Component> lore = List.of(Component.text("Click to select"), Component.text("Right click for info"));
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public ItemStack[] newBuilders() {
+        for (int i = 0; i < ITEMS; i++) {
+            items[i] = ItemBuilder.item(Material.PAPER).setLore(GRAY, lore).amount(i + 1).build();
+        }
+        return items;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public ItemStack[] pooledBuilders() {
+        for (int i = 0; i < ITEMS; i++) {
+            int amount = i + 1;
+            items[i] = pool.build(Material.PAPER, builder -> builder.setLore(GRAY, lore).amount(amount));
+        }
+        return items;
+    }
+}
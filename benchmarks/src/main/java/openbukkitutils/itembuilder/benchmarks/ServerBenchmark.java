@@ -0,0 +1,49 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of all benchmarks. Starts an in-process server stand-in so {@code Bukkit.getItemFactory()} and the
+ * registries are available without a running server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class ServerBenchmark {
+
+    protected ServerMock server;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        server = MockBukkit.mock();
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        MockBukkit.unmock();
+    }
+
+    /**
+     * Called once per trial after the server has been started. Registry backed values have to be created here.
+     */
+    protected void prepare() {
+    }
+}
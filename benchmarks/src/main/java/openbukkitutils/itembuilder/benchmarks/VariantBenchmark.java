@@ -0,0 +1,60 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import openbukkitutils.itembuilder.ItemBuilder;
+import org.bukkit.DyeColor;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds complete variant sets once with a builder run per variant and once with the variant API.
+ */
+public class VariantBenchmark extends ServerBenchmark {
+
+    private Pattern stripe;
+    private Pattern border;
+    private PotionEffect speed;
+    private PotionEffect jump;
+
+    @Override
+    protected void prepare() {
+        stripe = new Pattern(DyeColor.RED, PatternType.STRIPE_TOP);
+        border = new Pattern(DyeColor.BLACK, PatternType.BORDER);
+        speed = new PotionEffect(PotionEffectType.SPEED, 200, 1);
+        jump = new PotionEffect(PotionEffectType.JUMP_BOOST, 200, 1);
+    }
+
+    @Benchmark
+    public List<ItemStack> bannerColorsSeparately() {
+        List<ItemStack> banners = new ArrayList<>();
+        for (DyeColor color : DyeColor.values()) {
+            banners.add(ItemBuilder.banner(color, stripe, border).build());
+        }
+        return banners;
+    }
+
+    @Benchmark
+    public List<ItemStack> bannerColorVariants() {
+        return ItemBuilder.banner(DyeColor.WHITE, stripe, border).colorVariants();
+    }
+
+    @Benchmark
+    public List<ItemStack> potionFormsSeparately() {
+        List<ItemStack> potions = new ArrayList<>();
+        for (ItemBuilder.PotionBuilder.Form form : ItemBuilder.PotionBuilder.Form.values()) {
+            potions.add(ItemBuilder.potion().effect(speed).effect(jump).form(form).build());
+        }
+        return potions;
+    }
+
+    @Benchmark
+    public List<ItemStack> potionFormVariants() {
+        return ItemBuilder.potion().effect(speed).effect(jump).formVariants();
+    }
+}
@@ -0,0 +1,158 @@
+package openbukkitutils.itembuilder.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.ItemBuilder;
+import openbukkitutils.itembuilder.ItemTemplate;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds items on many threads at once and checks every result against the same item built on a single thread.
+ * Unlike {@link ConcurrentBuildBenchmark} this runs with the build and fails on the first mismatch.
+ */
+class ConcurrentBuildTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int ITEMS = 64;
+    private static final int ROUNDS = 20;
+
+    @BeforeAll
+    static void startServer() {
+        MockBukkit.mock();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        MockBukkit.unmock();
+    }
+
+    @AfterEach
+    void resetBackend() {
+        ItemBuilder.setBackend(ItemBuilder.Backend.ITEM_META);
+    }
+
+    /**
+     * Every index describes a different item, so state leaking between builders shows up as a wrong item.
+     */
+    private static ItemBuilder builder(int i) {
+        if (i % 2 == 0) {
+            return ItemBuilder.item(Material.DIAMOND_SWORD, 1 + i % 16)
+                    .name(Component.text("Sword " + i))
+                    .setLore(Component.text("Line " + i), Component.text("Built concurrently"))
+                    .appendLore(Component.text("Appended " + i))
+                    .enchant(Enchantment.SHARPNESS, 1 + i % 5);
+        }
+        return ItemBuilder.potion()
+                .effect(new PotionEffect(PotionEffectType.SPEED, 20 * i, i % 3))
+                .name(Component.text("Potion " + i));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ItemBuilder.Backend.class)
+    void concurrentBuildsEqualReference(ItemBuilder.Backend backend) throws Exception {
+        ItemBuilder.setBackend(backend);
+        runConcurrently(i -> builder(i).buildSnapshot());
+    }
+
+    @Test
+    void buildAsyncEqualsReference() throws Exception {
+        List<Supplier<ItemBuilder>> builders = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            int index = i;
+            builders.add(() -> builder(index));
+        }
+        ItemStack[] reference = reference(i -> builder(i).build());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<ItemStack> built = ItemBuilder.buildAsync(builders, executor).get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ITEMS; i++) {
+                    assertEquals(reference[i], built.get(i), "item " + i + " in round " + round);
+                }
+            }
+        }
+    }
+
+    @Test
+    void templateCopiesAreIndependent() throws Exception {
+        ItemTemplate template = builder(0).toTemplate();
+        ItemStack reference = builder(0).build();
+        runConcurrently(i -> {
+            // changing a created copy must never be visible to other threads creating from the same template
+            ItemStack item = template.create();
+            item.setAmount(1 + i % 64);
+            return item;
+        }, i -> reference.asQuantity(1 + i % 64));
+        assertEquals(reference, template.create());
+    }
+
+    private static void runConcurrently(IntFunction<ItemStack> build) throws Exception {
+        runConcurrently(build, i -> builder(i).build());
+    }
+
+    /**
+     * Builds every item on every thread, all threads starting at the same time, and compares the results with the
+     * reference built on the calling thread beforehand.
+     */
+    private static void runConcurrently(IntFunction<ItemStack> build, IntFunction<ItemStack> referenceBuild)
+            throws Exception {
+        ItemStack[] reference = reference(referenceBuild);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ItemStack[]>> results = new ArrayList<>(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                Callable<ItemStack[]> task = () -> {
+                    start.await();
+                    ItemStack[] built = new ItemStack[ITEMS * ROUNDS];
+                    for (int n = 0; n < built.length; n++) {
+                        built[n] = build.apply(n % ITEMS);
+                    }
+                    return built;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<ItemStack[]> result : results) {
+                ItemStack[] built = result.get(60, TimeUnit.SECONDS);
+                for (int n = 0; n < built.length; n++) {
+                    assertEquals(reference[n % ITEMS], built[n], "item " + n % ITEMS);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static ItemStack[] reference(IntFunction<ItemStack> build) {
+        ItemStack[] reference = new ItemStack[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            reference[i] = build.apply(i);
+        }
+        return reference;
+    }
+}
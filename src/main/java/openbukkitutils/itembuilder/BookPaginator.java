@@ -0,0 +1,326 @@
+package openbukkitutils.itembuilder;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into written book pages while it is streamed in.
+ * <p>
+ * Text is measured with the widths of the vanilla default font (bold text is one pixel wider per character) and
+ * wrapped the way the client wraps it: at spaces, or inside words that are longer than a whole line. A page is handed
+ * to the sink as soon as it is full, so only the page being filled and the current word are kept in memory,
+ * regardless of the size of the source. Characters outside of ASCII are measured with approximate widths.
+ * </p>
+ * <pre>{@code
+ * List<Component> pages = new ArrayList<>();
+ * BookPaginator paginator = new BookPaginator(pages::add);
+ * try (Reader reader = Files.newBufferedReader(rules)) {
+ *     paginator.append(reader, Style.empty());
+ * }
+ * paginator.finish();
+ * }</pre>
+ * <p>
+ * A paginator is not thread-safe. Written books hold at most {@link #MAX_PAGES} pages, split longer texts into
+ * several volumes in the sink, or give the paginator a page limit: once it is reached, the rest of the text is
+ * dropped and readers are not read any further.
+ * </p>
+ */
+public final class BookPaginator {
+
+    /**
+     * The width of a book line in pixels.
+     */
+    public static final int LINE_WIDTH = 114;
+    public static final int LINES_PER_PAGE = 14;
+    /**
+     * The maximum amount of characters on a page.
+     */
+    public static final int MAX_PAGE_CHARS = 1024;
+    /**
+     * The maximum amount of pages of a written book.
+     */
+    public static final int MAX_PAGES = 100;
+
+    private static final int DEFAULT_WIDTH = 6;
+    private static final int WIDE_WIDTH = 9;
+    private static final byte[] ASCII_WIDTHS = asciiWidths();
+
+    private final Consumer<Component> sink;
+    private final int maxPages;
+    private final List<Component> pageParts = new ArrayList<>();
+    private final StringBuilder run = new StringBuilder();
+    private Style runStyle = Style.empty();
+    private final List<Component> wordParts = new ArrayList<>();
+    private final StringBuilder word = new StringBuilder();
+    private Style wordStyle = Style.empty();
+    private Style style = Style.empty();
+    private boolean bold;
+    private int lineWidth;
+    private int wordWidth;
+    private int wordChars;
+    private int lines;
+    private int pageChars;
+    private int pages;
+
+    /**
+     * @param sink Receives every page as soon as it is complete.
+     */
+    public BookPaginator(Consumer<Component> sink) {
+        this(sink, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param sink     Receives every page as soon as it is complete.
+     * @param maxPages The amount of pages after which all further text is dropped, e.g. {@link #MAX_PAGES}.
+     */
+    public BookPaginator(Consumer<Component> sink, int maxPages) {
+        if (maxPages < 0) {
+            throw new IllegalArgumentException("maxPages can't be negative");
+        }
+        this.sink = sink;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Appends plain text in the given style.
+     *
+     * @return The paginator itself.
+     */
+    public BookPaginator append(CharSequence text, Style style) {
+        style(style);
+        for (int i = 0; i < text.length() && !isFull(); i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Appends everything the reader provides in the given style, reading it in chunks. Doesn't close the reader.
+     * Stops reading once the page limit is reached.
+     *
+     * @return The paginator itself.
+     * @throws IOException If reading fails.
+     */
+    public BookPaginator append(Reader text, Style style) throws IOException {
+        style(style);
+        char[] buffer = new char[8192];
+        int read;
+        while (!isFull() && (read = text.read(buffer)) != -1) {
+            for (int i = 0; i < read && !isFull(); i++) {
+                append(buffer[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends a component including its children, keeping their styles.
+     * Components other than text components are appended as their plain text.
+     *
+     * @return The paginator itself.
+     */
+    public BookPaginator append(Component text) {
+        append(text, Style.empty());
+        return this;
+    }
+
+    private void append(Component component, Style parentStyle) {
+        if (isFull()) {
+            return;
+        }
+        Style merged = component.style().merge(parentStyle, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+        String content = component instanceof TextComponent text
+                ? text.content()
+                : PlainTextComponentSerializer.plainText().serialize(component.children(List.of()));
+        append(content, merged);
+        for (Component child : component.children()) {
+            append(child, merged);
+        }
+    }
+
+    /**
+     * Emits the last, partially filled page unless the page limit is reached. The paginator can be used for new text
+     * afterwards.
+     *
+     * @return Returns the amount of pages emitted so far.
+     */
+    public int finish() {
+        if (isFull()) {
+            return pages;
+        }
+        commitWord();
+        if (pageChars > 0 || !pageParts.isEmpty()) {
+            flushPage();
+        }
+        return pages;
+    }
+
+    /**
+     * @return Returns the amount of pages emitted so far.
+     */
+    public int pages() {
+        return pages;
+    }
+
+    /**
+     * @return Returns true if the page limit is reached and further text is dropped.
+     */
+    public boolean isFull() {
+        return pages >= maxPages;
+    }
+
+    private void style(Style style) {
+        // styles are compared by reference per character, so only replace them if they actually differ
+        if (!style.equals(this.style)) {
+            this.style = style;
+            this.bold = style.hasDecoration(TextDecoration.BOLD);
+        }
+    }
+
+    private void append(char c) {
+        if (c == '\n') {
+            commitWord();
+            appendToPage(c);
+            newLine();
+            return;
+        }
+        if (c == '\r') {
+            return;
+        }
+        int width = width(c);
+        if (c == ' ') {
+            commitWord();
+            if (lineWidth + width > LINE_WIDTH) {
+                // the client drops the space at the end of a wrapped line
+                newLine();
+                width = 0;
+            }
+            appendToPage(c);
+            lineWidth += width;
+            return;
+        }
+        if (lineWidth + wordWidth + width > LINE_WIDTH) {
+            if (lineWidth > 0) {
+                // the word moves to the next line, and with it to the next page if this one is full
+                newLine();
+            }
+            if (wordWidth + width > LINE_WIDTH) {
+                // longer than a line, the client breaks it at the character
+                commitWord();
+                newLine();
+            }
+        }
+        if (pageChars + wordChars + 1 > MAX_PAGE_CHARS) {
+            flushPage();
+        }
+        if (style != wordStyle && !word.isEmpty()) {
+            wordParts.add(Component.text(word.toString(), wordStyle));
+            word.setLength(0);
+        }
+        wordStyle = style;
+        word.append(c);
+        wordWidth += width;
+        wordChars++;
+    }
+
+    private void commitWord() {
+        if (wordChars == 0) {
+            return;
+        }
+        for (Component part : wordParts) {
+            closeRun();
+            pageParts.add(part);
+        }
+        wordParts.clear();
+        if (wordStyle != runStyle) {
+            closeRun();
+            runStyle = wordStyle;
+        }
+        run.append(word);
+        word.setLength(0);
+        pageChars += wordChars;
+        lineWidth += wordWidth;
+        wordChars = 0;
+        wordWidth = 0;
+    }
+
+    private void appendToPage(char c) {
+        if (style != runStyle) {
+            closeRun();
+            runStyle = style;
+        }
+        run.append(c);
+        pageChars++;
+    }
+
+    private void newLine() {
+        lineWidth = 0;
+        if (++lines == LINES_PER_PAGE) {
+            flushPage();
+        }
+    }
+
+    private void closeRun() {
+        if (!run.isEmpty()) {
+            pageParts.add(Component.text(run.toString(), runStyle));
+            run.setLength(0);
+        }
+    }
+
+    private void flushPage() {
+        closeRun();
+        Component page = pageParts.size() == 1 ? pageParts.getFirst() : Component.text().append(pageParts).build();
+        pageParts.clear();
+        lines = 0;
+        lineWidth = 0;
+        pageChars = 0;
+        pages++;
+        sink.accept(page);
+    }
+
+    private int width(char c) {
+        int width;
+        if (c < ASCII_WIDTHS.length) {
+            width = ASCII_WIDTHS[c];
+        } else {
+            width = isWide(c) ? WIDE_WIDTH : DEFAULT_WIDTH;
+        }
+        return bold && c != ' ' && width > 0 ? width + 1 : width;
+    }
+
+    private static boolean isWide(char c) {
+        return (c >= 0x2E80 && c <= 0x9FFF) || (c >= 0xAC00 && c <= 0xD7A3) || (c >= 0xF900 && c <= 0xFAFF)
+                || (c >= 0xFF00 && c <= 0xFF60);
+    }
+
+    /**
+     * The advance of every ASCII character in the default font, including the pixel between characters.
+     */
+    private static byte[] asciiWidths() {
+        byte[] widths = new byte[128];
+        Arrays.fill(widths, (byte) DEFAULT_WIDTH);
+        Arrays.fill(widths, 0, 32, (byte) 0);
+        setWidth(widths, "!',.:;i|", 2);
+        setWidth(widths, "`l", 3);
+        setWidth(widths, " \"()*I[]t{}", 4);
+        setWidth(widths, "<>fk", 5);
+        setWidth(widths, "@~", 7);
+        return widths;
+    }
+
+    private static void setWidth(byte[] widths, String chars, int width) {
+        for (int i = 0; i < chars.length(); i++) {
+            widths[chars.charAt(i)] = (byte) width;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Spreads large amounts of item builds over several ticks, so opening a huge menu or regenerating a catalog doesn't
+ * cause a lag spike.
+ * <p>
+ * Every tick builds queued items until the time budget is used up (at least one item per tick, so batches always
+ * make progress). Items marked as visible are built before everything else, across all batches. Visibility is checked
+ * again before a visible item is built and for all queued items on {@link #reprioritize()}, so menus that scroll while
+ * their items are built keep the items on screen first. The scheduler only runs while there is work queued. It has to
+ * be used from the main thread.
+ * </p>
+ * <pre>{@code
+ * scheduler.submit(entryBuilders, slot -> slot < 54, inventory::setItem)
+ *         .thenAccept(items -> catalog.addAll(items));
+ * }</pre>
+ */
+public final class BuildScheduler implements AutoCloseable {
+
+    private final Plugin plugin;
+    private final long budgetNanos;
+    private final ArrayDeque<Job> visible = new ArrayDeque<>();
+    /**
+     * Ordered by submission, so items that scrolled out of view go back to their original place.
+     */
+    private final PriorityQueue<Job> background = new PriorityQueue<>(Comparator.comparingLong(Job::sequence));
+    private @Nullable BukkitTask task;
+    private TickReport lastTick = new TickReport(0, 0, 0);
+    private long sequence;
+
+    /**
+     * @param plugin        The plugin the ticking task is scheduled for.
+     * @param budgetPerTick The time the scheduler may spend building per tick, e.g. 5 ms of the 50 ms a tick has.
+     */
+    public BuildScheduler(Plugin plugin, Duration budgetPerTick) {
+        if (budgetPerTick.isNegative() || budgetPerTick.isZero()) {
+            throw new IllegalArgumentException("budgetPerTick has to be positive");
+        }
+        this.plugin = plugin;
+        this.budgetNanos = budgetPerTick.toNanos();
+    }
+
+    /**
+     * Queues a batch of builds without any visible items, see {@link #submit(List, IntPredicate, BiConsumer)}.
+     */
+    public CompletableFuture<List<ItemStack>> submit(List<? extends Supplier<? extends ItemBuilder>> builders) {
+        return submit(builders, index -> false, null);
+    }
+
+    /**
+     * Queues a batch of builds.
+     *
+     * @param builders One supplier per item, each creating the configured builder. Called on the main thread.
+     * @param visible  Tells whether the item with the given index is currently visible, those are built first.
+     *                 Asked again while the batch is queued, see {@link #reprioritize()}.
+     * @param onBuilt  Receives every item as soon as it is built with its index, e.g. to put it into its slot right away.
+     * @return Returns a future completed on the main thread with all items in the order of the suppliers, or
+     * completed exceptionally with the first failure (the rest of the batch is skipped then). If the visibility
+     * can't be determined, the future is completed exceptionally right away and nothing is queued.
+     */
+    public CompletableFuture<List<ItemStack>> submit(List<? extends Supplier<? extends ItemBuilder>> builders,
+                                                     IntPredicate visible,
+                                                     @Nullable BiConsumer<Integer, ItemStack> onBuilt) {
+        Batch batch = new Batch(builders.size(), visible, onBuilt, ItemBuilderStatistics.captureCaller());
+        if (builders.isEmpty()) {
+            batch.future.complete(List.of());
+            return batch.future;
+        }
+        // asked for the whole batch first, so a failing predicate doesn't leave part of the batch queued
+        boolean[] visibleJobs = new boolean[builders.size()];
+        try {
+            for (int i = 0; i < visibleJobs.length; i++) {
+                visibleJobs[i] = visible.test(i);
+            }
+        } catch (Throwable e) {
+            batch.future.completeExceptionally(e);
+            return batch.future;
+        }
+        for (int i = 0; i < builders.size(); i++) {
+            Job job = new Job(batch, i, sequence++, builders.get(i));
+            (visibleJobs[i] ? this.visible : background).add(job);
+        }
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0, 1);
+        }
+        return batch.future;
+    }
+
+    /**
+     * Asks the visibility of all queued items again, e.g. after the viewer scrolled a menu, so items that became
+     * visible are built next. Items that are no longer visible are moved back in submission order.
+     */
+    public void reprioritize() {
+        List<Job> jobs = new ArrayList<>(queueDepth());
+        jobs.addAll(visible);
+        jobs.addAll(background);
+        jobs.sort(Comparator.comparingLong(Job::sequence));
+        visible.clear();
+        background.clear();
+        for (Job job : jobs) {
+            // a failing predicate completes the batch, its remaining jobs are skipped then
+            if (!job.batch.future.isDone()) {
+                (isVisible(job) ? visible : background).add(job);
+            }
+        }
+    }
+
+    /**
+     * @return Returns the amount of items waiting to be built. Items of failed batches aren't counted.
+     */
+    public int queueDepth() {
+        return visible.size() + background.size();
+    }
+
+    /**
+     * @return Returns the time used, the items built and the queue depth of the last tick the scheduler ran.
+     */
+    public TickReport lastTick() {
+        return lastTick;
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        int built = 0;
+        Job job;
+        while ((job = next()) != null) {
+            if (!job.run()) {
+                drop(job.batch);
+            }
+            built++;
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        lastTick = new TickReport(System.nanoTime() - start, built, queueDepth());
+        if (queueDepth() == 0 && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private @Nullable Job next() {
+        Job job;
+        while ((job = visible.poll()) != null) {
+            if (job.batch.future.isDone()) {
+                // cancelled by its caller
+                drop(job.batch);
+            } else if (isVisible(job)) {
+                return job;
+            } else if (!job.batch.future.isDone()) {
+                // scrolled out of view since it was queued, back to its place in submission order
+                background.add(job);
+            }
+        }
+        while ((job = background.poll()) != null) {
+            if (!job.batch.future.isDone()) {
+                return job;
+            }
+            drop(job.batch);
+        }
+        return null;
+    }
+
+    private boolean isVisible(Job job) {
+        try {
+            return job.batch.visible.test(job.index);
+        } catch (Throwable e) {
+            job.batch.future.completeExceptionally(e);
+            drop(job.batch);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the queued jobs of a completed batch, so they neither count towards the queue depth nor wait there.
+     */
+    private void drop(Batch batch) {
+        visible.removeIf(job -> job.batch == batch);
+        background.removeIf(job -> job.batch == batch);
+    }
+
+    /**
+     * Stops the scheduler. Queued batches are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        IllegalStateException closed = new IllegalStateException("BuildScheduler was closed");
+        for (Job job : visible) {
+            job.batch.future.completeExceptionally(closed);
+        }
+        for (Job job : background) {
+            job.batch.future.completeExceptionally(closed);
+        }
+        visible.clear();
+        background.clear();
+    }
+
+    /**
+     * @param nanos      The time spent building in the tick.
+     * @param built      The amount of items built in the tick.
+     * @param queueDepth The amount of items still queued after the tick.
+     */
+    public record TickReport(long nanos, int built, int queueDepth) {
+    }
+
+    private static final class Batch {
+        private final ItemStack[] items;
+        private final IntPredicate visible;
+        private final @Nullable BiConsumer<Integer, ItemStack> onBuilt;
+        /**
+         * The plugin that submitted the batch, the jobs run from the scheduler's task instead of its code.
+         */
+        private final @Nullable ItemBuilderStatistics.Caller caller;
+        private final CompletableFuture<List<ItemStack>> future = new CompletableFuture<>();
+        private int remaining;
+
+        Batch(int size, IntPredicate visible, @Nullable BiConsumer<Integer, ItemStack> onBuilt,
+              @Nullable ItemBuilderStatistics.Caller caller) {
+            this.items = new ItemStack[size];
+            this.visible = visible;
+            this.caller = caller;
+            this.onBuilt = onBuilt;
+            this.remaining = size;
+        }
+    }
+
+    private record Job(Batch batch, int index, long sequence, Supplier<? extends ItemBuilder> builder) {
+
+        /**
+         * @return Returns false if the build failed and the batch was completed exceptionally.
+         */
+        boolean run() {
+            try {
+                ItemStack item = ItemBuilderStatistics.attributed(batch.caller, () -> builder.get().build());
+                batch.items[index] = item;
+                if (batch.onBuilt != null) {
+                    batch.onBuilt.accept(index, item);
+                }
+            } catch (Throwable e) {
+                // errors too, e.g. a LinkageError of a missing class, otherwise the batch would never complete
+                batch.future.completeExceptionally(e);
+                return false;
+            }
+            if (--batch.remaining == 0) {
+                batch.future.complete(Arrays.asList(batch.items));
+            }
+            return true;
+        }
+    }
+}
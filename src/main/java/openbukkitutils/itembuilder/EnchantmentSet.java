@@ -0,0 +1,155 @@
+package openbukkitutils.itembuilder;
+
+import io.papermc.paper.datacomponent.item.ItemEnchantments;
+import org.bukkit.enchantments.Enchantment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable set of enchantments with their levels, e.g. an enchantment loadout of generated gear.
+ * <p>
+ * A set is built once and applied to any number of items with {@link ItemBuilder#addEnchantments(EnchantmentSet)},
+ * {@link ItemBuilder#setEnchantments(EnchantmentSet)}, {@link ItemBuilder#removeEnchantments(EnchantmentSet)} and the
+ * stored enchantment counterparts of {@link ItemBuilder.EnchantedBookBuilder}. Setting and removing a whole set is a
+ * single component write with both backends, adding one is with the data component backend. Sets are thread-safe.
+ * </p>
+ */
+@SuppressWarnings("UnstableApiUsage")
+public final class EnchantmentSet {
+
+    private static final EnchantmentSet EMPTY = new EnchantmentSet(Map.of());
+
+    private final Enchantment[] enchantments;
+    private final int[] levels;
+    private final Map<Enchantment, Integer> map;
+    private final int hash;
+    private volatile ItemEnchantments component;
+
+    private EnchantmentSet(Map<Enchantment, Integer> enchantments) {
+        this.enchantments = new Enchantment[enchantments.size()];
+        this.levels = new int[enchantments.size()];
+        Map<Enchantment, Integer> map = new LinkedHashMap<>();
+        int i = 0;
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            this.enchantments[i] = entry.getKey();
+            this.levels[i] = entry.getValue();
+            map.put(entry.getKey(), entry.getValue());
+            i++;
+        }
+        this.map = Collections.unmodifiableMap(map);
+        this.hash = map.hashCode();
+    }
+
+    /**
+     * @param enchantments The enchantments and their levels.
+     * @return Returns a set with a copy of the given enchantments.
+     */
+    public static EnchantmentSet of(Map<Enchantment, Integer> enchantments) {
+        return enchantments.isEmpty() ? EMPTY : new EnchantmentSet(enchantments);
+    }
+
+    public static EnchantmentSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return Returns the enchantments and their levels as an immutable map.
+     */
+    public Map<Enchantment, Integer> asMap() {
+        return map;
+    }
+
+    public int size() {
+        return enchantments.length;
+    }
+
+    public boolean isEmpty() {
+        return enchantments.length == 0;
+    }
+
+    /**
+     * @return Returns the level of the enchantment in this set, or 0 if it isn't part of it.
+     */
+    public int level(Enchantment enchantment) {
+        for (int i = 0; i < enchantments.length; i++) {
+            if (enchantments[i].equals(enchantment)) {
+                return levels[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether the given enchantments already contain this whole set with the same levels, e.g. the result of
+     * {@link org.bukkit.inventory.ItemStack#getEnchantments()}.
+     *
+     * @param others The enchantments to check.
+     * @return Returns true if every enchantment of this set is present at its level.
+     */
+    public boolean isContainedIn(Map<Enchantment, Integer> others) {
+        if (others.size() < enchantments.length) {
+            return false;
+        }
+        for (int i = 0; i < enchantments.length; i++) {
+            Integer level = others.get(enchantments[i]);
+            if (level == null || level != levels[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param others The enchantments to compare.
+     * @return Returns true if the given enchantments are exactly this set.
+     */
+    public boolean matches(Map<Enchantment, Integer> others) {
+        return others.size() == enchantments.length && isContainedIn(others);
+    }
+
+    /**
+     * Calls the consumer for every enchantment without creating map entries.
+     */
+    void forEach(EnchantmentConsumer consumer) {
+        for (int i = 0; i < enchantments.length; i++) {
+            consumer.accept(enchantments[i], levels[i]);
+        }
+    }
+
+    /**
+     * @return Returns the set as an enchantments data component, created once.
+     */
+    ItemEnchantments component() {
+        ItemEnchantments component = this.component;
+        if (component == null) {
+            component = ItemEnchantments.itemEnchantments(map);
+            this.component = component;
+        }
+        return component;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof EnchantmentSet other && hash == other.hash && matches(other.map);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "EnchantmentSet" + map;
+    }
+
+    @FunctionalInterface
+    interface EnchantmentConsumer {
+        void accept(Enchantment enchantment, int level);
+    }
+}
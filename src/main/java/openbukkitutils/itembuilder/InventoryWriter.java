@@ -0,0 +1,78 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes built items into inventories, skipping the slots whose item did not change.
+ * <p>
+ * Refreshing a GUI usually rebuilds every slot, but only a few items actually differ from what the inventory already
+ * shows. Every {@code setItem} is sent to the viewers, so only writing the changed slots saves both the copy into the
+ * inventory and the packets. The current contents are read once per write and compared slot by slot, by reference
+ * first and by {@link ItemStack#equals(Object)} only if needed.
+ * </p>
+ * <p>
+ * Like every inventory access, writing has to happen on the main thread.
+ * </p>
+ */
+public final class InventoryWriter {
+
+    private InventoryWriter() {
+    }
+
+    /**
+     * Writes the items to the first slots of the inventory, see {@link #write(Inventory, int, ItemStack[])}.
+     */
+    public static Result write(Inventory inventory, @Nullable ItemStack[] items) {
+        return write(inventory, 0, items);
+    }
+
+    /**
+     * Writes the items to consecutive slots of the inventory, only calling {@code setItem} for slots that changed.
+     *
+     * @param inventory The inventory to write to.
+     * @param offset    The slot the first item is written to.
+     * @param items     The new items, null or air for an empty slot.
+     * @return Returns how many slots were written and how many were skipped.
+     */
+    public static Result write(Inventory inventory, int offset, @Nullable ItemStack[] items) {
+        ItemStack[] contents = inventory.getContents();
+        if (offset < 0 || offset + items.length > contents.length) {
+            throw new IndexOutOfBoundsException("Can't write " + items.length + " items at slot " + offset
+                    + " of an inventory with " + contents.length + " slots");
+        }
+        int written = 0;
+        for (int i = 0; i < items.length; i++) {
+            ItemStack item = items[i];
+            if (!same(contents[offset + i], item)) {
+                inventory.setItem(offset + i, item);
+                written++;
+            }
+        }
+        return new Result(written, items.length - written);
+    }
+
+    private static boolean same(@Nullable ItemStack current, @Nullable ItemStack item) {
+        if (current == item) {
+            return true;
+        }
+        boolean currentEmpty = current == null || current.isEmpty();
+        boolean itemEmpty = item == null || item.isEmpty();
+        if (currentEmpty || itemEmpty) {
+            return currentEmpty == itemEmpty;
+        }
+        return current.getType() == item.getType() && current.getAmount() == item.getAmount() && current.equals(item);
+    }
+
+    /**
+     * @param written The amount of slots that changed and were written.
+     * @param skipped The amount of slots that already held the item and were skipped.
+     */
+    public record Result(int written, int skipped) {
+
+        public int slots() {
+            return written + skipped;
+        }
+    }
+}
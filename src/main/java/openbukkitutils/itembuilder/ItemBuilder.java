@@ -1,7 +1,12 @@
 package openbukkitutils.itembuilder;
 
 import com.destroystokyo.paper.inventory.meta.ArmorStandMeta;
+import com.destroystokyo.paper.profile.PlayerProfile;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import openbukkitutils.itembuilder.MaterialCapabilities.Capability;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.format.Style;
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.DyeColor;
@@ -18,28 +23,51 @@ import org.bukkit.inventory.meta.AxolotlBucketMeta;
 import org.bukkit.inventory.meta.BannerMeta;
 import org.bukkit.inventory.meta.BookMeta;
 import org.bukkit.inventory.meta.BundleMeta;
+import org.bukkit.inventory.meta.ColorableArmorMeta;
 import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.EnchantmentStorageMeta;
 import org.bukkit.inventory.meta.FireworkMeta;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.LeatherArmorMeta;
 import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.inventory.meta.ShieldMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 import org.bukkit.inventory.meta.trim.ArmorTrim;
 import org.bukkit.potion.PotionEffect;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
  * Class to ease the creation of {@link ItemStack}s
+ * <p>
+ * <b>Thread safety:</b> an ItemBuilder is not thread-safe, but it is not bound to the main thread either. A builder
+ * may be created and used on any thread as long as only one thread uses it at a time. {@link #build()} returns the
+ * builder's own stack, use {@link #buildSnapshot()} (or {@link #buildAsync(Supplier, Executor)}) to get an isolated
+ * copy that can be handed to the main thread. {@link ItemTemplate}s are immutable and can be shared between threads.
+ * </p>
+ * <p>
+ * Lookups that may block or need the main thread ({@link #playerHead(String)}, {@link PlayerHeadBuilder#owningPlayer(String)})
+ * should be resolved before building on a worker thread, e.g. with a {@link PlayerHeadResolver} and
+ * {@link PlayerHeadBuilder#profile(com.destroystokyo.paper.profile.PlayerProfile)}.
+ * </p>
  */
 /*
 Missing builders:
@@ -57,11 +85,45 @@ TropicalFish
 public class ItemBuilder {
 
     protected ItemStack stack;
+    /**
+     * The meta of the stack, null until the first call to {@link #meta()}.
+     */
     protected ItemMeta meta;
+    /**
+     * True if the meta may have changed since {@link #build()} last wrote it to the stack.
+     */
+    private boolean metaDirty;
+    /**
+     * The lore being edited, written to the meta or the lore component once by {@link #build()}.
+     * Only holds the lore while {@link #loreBuffered} is true, the list is kept afterwards to be reused.
+     */
+    private @Nullable ArrayList<Component> lore;
+    /**
+     * True if {@link #lore} holds lore changes that were not written yet.
+     */
+    private boolean loreBuffered;
+
+    private static volatile ItemBuilderMetrics metrics;
+    private static volatile Backend backend = Backend.ITEM_META;
+
+    /**
+     * How builders write item properties.
+     */
+    public enum Backend {
+        /**
+         * Every property is written to the {@link ItemMeta}, which is applied to the stack by {@link #build()}.
+         */
+        ITEM_META,
+        /**
+         * The name, lore, enchantments, unbreakable, damage, potion effects, banner patterns and head profiles are
+         * written directly to the stack as data components as long as the builder has not fetched its meta.
+         * Builders that only use these properties never copy the meta. Everything else still uses the meta.
+         */
+        DATA_COMPONENTS
+    }
 
     public ItemBuilder(Material type) {
         stack = new ItemStack(type);
-        meta = stack.getItemMeta();
     }
 
     public static ItemBuilder item(Material type) {
@@ -82,26 +144,161 @@ public class ItemBuilder {
 
     public ItemBuilder(Material type, int amount) {
         stack = new ItemStack(type, amount);
-        meta = stack.getItemMeta();
     }
 
     public ItemBuilder(Material type, Component... loreLines) {
         stack = new ItemStack(type);
-        meta = stack.getItemMeta();
-        meta.lore(List.of(loreLines));
+        Collections.addAll(newLore(), loreLines);
     }
 
     private ItemBuilder(ItemStack stack) {
         this.stack = stack;
-        this.meta = stack.getItemMeta();
     }
 
     public ItemBuilder() {
         this(Material.AIR);
     }
 
+    /**
+     * Returns the item meta, fetching it from the stack on first use.
+     * Builders that only change the material or the amount never fetch the meta at all.
+     * Callers are expected to change the meta, so the next {@link #build()} writes it to the stack again.
+     *
+     * @return Returns the internal item meta of this builder.
+     */
+    protected ItemMeta meta() {
+        metaDirty = true;
+        if (meta == null) {
+            meta = stack.getItemMeta();
+            ItemBuilderMetrics metrics = ItemBuilder.metrics;
+            if (metrics != null) {
+                metrics.onMetaFetch(getClass());
+            }
+        }
+        return meta;
+    }
+
+    /**
+     * Installs a listener that is notified about builds, meta fetches, meta writes, lore changes and player lookups
+     * of all builders. Only one listener can be installed at a time.
+     *
+     * @param metrics The listener, or null to remove the installed one.
+     */
+    public static void setMetrics(@Nullable ItemBuilderMetrics metrics) {
+        ItemBuilder.metrics = metrics;
+    }
+
+    static @Nullable ItemBuilderMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Selects how all builders write item properties. The public API of the builders is the same for every backend.
+     *
+     * @param backend The backend to use, {@link Backend#ITEM_META} by default.
+     */
+    public static void setBackend(Backend backend) {
+        ItemBuilder.backend = Objects.requireNonNull(backend, "backend");
+    }
+
+    /**
+     * @return Returns true if properties should be written as data components: the data component backend is
+     * selected and the meta has not been fetched yet (writing components would be overwritten by the meta).
+     */
+    protected boolean writesComponents() {
+        return meta == null && backend == Backend.DATA_COMPONENTS;
+    }
+
+    /**
+     * Returns the stack for writing a whole component at once, e.g. all enchantments of an {@link EnchantmentSet}
+     * instead of one meta call per enchantment. A fetched meta is written to the stack and dropped first, so it can't
+     * overwrite the component on the next build; the next meta change fetches it again.
+     *
+     * @return Returns the stack of this builder with everything applied so far.
+     */
+    ItemStack componentStack() {
+        if (meta != null) {
+            applyMeta();
+            meta = null;
+        }
+        return stack;
+    }
+
+    /**
+     * @return Returns the empty lore buffer, replacing the current lore once it is written.
+     */
+    private List<Component> newLore() {
+        if (lore == null) {
+            lore = new ArrayList<>();
+        } else {
+            lore.clear();
+        }
+        loreBuffered = true;
+        return lore;
+    }
+
+    /**
+     * @return Returns the lore buffer, filled with the current lore of the item when editing starts.
+     */
+    private List<Component> editLore() {
+        if (loreBuffered) {
+            return lore;
+        }
+        List<Component> lore = newLore();
+        List<Component> current = meta == null ? ItemComponents.lore(stack) : meta.lore();
+        if (current != null) {
+            lore.addAll(current);
+        }
+        return lore;
+    }
+
+    /**
+     * Writes the buffered lore, the meta and the lore component copy the list.
+     */
+    private void writeLore() {
+        if (!loreBuffered) {
+            return;
+        }
+        loreBuffered = false;
+        if (writesComponents()) {
+            ItemComponents.lore(stack, lore);
+        } else {
+            meta().lore(lore);
+        }
+        ItemBuilderMetrics metrics = ItemBuilder.metrics;
+        if (metrics != null) {
+            metrics.onLore(getClass(), lore.size());
+        }
+    }
+
+    private static OfflinePlayer offlinePlayer(UUID uuid) {
+        ItemBuilderMetrics metrics = ItemBuilder.metrics;
+        if (metrics == null) {
+            return Bukkit.getOfflinePlayer(uuid);
+        }
+        long start = System.nanoTime();
+        OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
+        metrics.onOfflinePlayerLookup(System.nanoTime() - start);
+        return player;
+    }
+
+    private static OfflinePlayer offlinePlayer(String playerName) {
+        ItemBuilderMetrics metrics = ItemBuilder.metrics;
+        if (metrics == null) {
+            return Bukkit.getOfflinePlayer(playerName);
+        }
+        long start = System.nanoTime();
+        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
+        metrics.onOfflinePlayerLookup(System.nanoTime() - start);
+        return player;
+    }
+
     public ItemBuilder enchant(Enchantment enchantment, int level) {
-        meta.addEnchant(enchantment, level, true);
+        if (writesComponents()) {
+            ItemComponents.addEnchantment(stack, enchantment, level);
+        } else {
+            meta().addEnchant(enchantment, level, true);
+        }
         return this;
     }
 
@@ -114,29 +311,85 @@ public class ItemBuilder {
      *                               applied, allowing to enchant beyond "vanilla" levels.
      */
     public ItemBuilder enchant(Enchantment enchantment, int level, boolean ignoreLevelRestriction) {
-        meta.addEnchant(enchantment, level, ignoreLevelRestriction);
+        if (ignoreLevelRestriction) {
+            return enchant(enchantment, level);
+        }
+        meta().addEnchant(enchantment, level, false);
         return this;
     }
 
     public ItemBuilder addEnchantments(Map<Enchantment, Integer> enchantments) {
+        if (writesComponents()) {
+            ItemComponents.addEnchantments(stack, enchantments);
+            return this;
+        }
+        ItemMeta meta = meta();
         for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
             meta.addEnchant(entry.getKey(), entry.getValue(), true);
         }
         return this;
     }
 
+    /**
+     * Adds all enchantments of the set, keeping other enchantments of the item.
+     * With the data component backend the set is written in a single component write.
+     */
+    public ItemBuilder addEnchantments(EnchantmentSet enchantments) {
+        if (enchantments.isEmpty()) {
+            return this;
+        }
+        if (writesComponents()) {
+            ItemComponents.addEnchantments(stack, DataComponentTypes.ENCHANTMENTS, enchantments.asMap());
+            return this;
+        }
+        ItemMeta meta = meta();
+        enchantments.forEach((enchantment, level) -> meta.addEnchant(enchantment, level, true));
+        return this;
+    }
+
+    /**
+     * Replaces all enchantments of the item with the set.
+     * The set's prebuilt component is written as is, with both backends.
+     */
+    public ItemBuilder setEnchantments(EnchantmentSet enchantments) {
+        ItemComponents.setEnchantments(componentStack(), DataComponentTypes.ENCHANTMENTS, enchantments);
+        return this;
+    }
+
+    /**
+     * Removes every enchantment of the set from the item, regardless of its level.
+     * The remaining enchantments are written in a single component write, with both backends.
+     */
+    public ItemBuilder removeEnchantments(EnchantmentSet enchantments) {
+        if (!enchantments.isEmpty()) {
+            ItemComponents.removeEnchantments(componentStack(), DataComponentTypes.ENCHANTMENTS, enchantments);
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether the item already has every enchantment of the set at its level, without copying the meta.
+     */
+    public boolean hasEnchantments(EnchantmentSet enchantments) {
+        return enchantments.isContainedIn(meta == null ? stack.getEnchantments() : meta.getEnchants());
+    }
+
     public ItemBuilder hideEnchants() {
         flag(ItemFlag.HIDE_ENCHANTS);
         return this;
     }
 
     public ItemBuilder removeEnchantment(Enchantment enchantment) {
-        meta.removeEnchant(enchantment);
+        meta().removeEnchant(enchantment);
         return this;
     }
 
     public ItemBuilder clearEnchantments() {
-        meta.getEnchants().forEach((enchantment, integer) -> meta.removeEnchant(enchantment));
+        if (writesComponents()) {
+            ItemComponents.setEnchantments(stack, DataComponentTypes.ENCHANTMENTS, EnchantmentSet.empty());
+        } else {
+            meta().removeEnchantments();
+        }
         return this;
     }
 
@@ -145,13 +398,18 @@ public class ItemBuilder {
         return this;
     }
 
+    /**
+     * Sets the lore. Lore changes are buffered and written to the item once, by the next {@link #build()}.
+     *
+     * @return The ItemBuilder itself.
+     */
     public ItemBuilder setLore(List<Component> loreLines) {
-        meta.lore(loreLines);
+        newLore().addAll(loreLines);
         return this;
     }
 
     public ItemBuilder setLore(Component... loreLines) {
-        meta.lore(Arrays.asList(loreLines));
+        Collections.addAll(newLore(), loreLines);
         return this;
     }
 
@@ -175,24 +433,74 @@ public class ItemBuilder {
      * @return The ItemBuilder itself.
      */
     public ItemBuilder setLore(Function<Component, Component> formatter, List<Component> loreLines) {
-        List<Component> formattedLore = new ArrayList<>(loreLines.size());
+        List<Component> formattedLore = newLore();
         for (Component s : loreLines) {
             formattedLore.add(formatter.apply(s));
         }
-        meta.lore(formattedLore);
         return this;
     }
 
+    /**
+     * Sets the lore to the given template rendered with the given placeholder values.
+     *
+     * @param template The precompiled lore template.
+     * @param values   The placeholder values by placeholder name.
+     * @return The ItemBuilder itself.
+     */
+    public ItemBuilder setLore(LoreTemplate template, Map<String, ? extends ComponentLike> values) {
+        return setLore(template.render(values));
+    }
+
+    /**
+     * Appends lines to the lore, or sets them as the lore if the item has none yet.
+     * Only the first lore change after a build reads the current lore, every further line is appended to the buffer.
+     *
+     * @return The ItemBuilder itself.
+     */
     public ItemBuilder appendLore(Component... loreLines) {
-        if (meta.hasLore()) {
-            List<Component> lore = meta.lore();
-            ArrayList<Component> newLore = new ArrayList<>(lore);
-            newLore.addAll(Arrays.asList(loreLines));
-            meta.lore(newLore);
+        Collections.addAll(editLore(), loreLines);
+        return this;
+    }
+
+    /**
+     * Appends the lines to the lore after applying the formatter to each of them.
+     *
+     * @return The ItemBuilder itself.
+     */
+    public ItemBuilder appendLore(Function<Component, Component> formatter, List<Component> loreLines) {
+        List<Component> lore = editLore();
+        for (Component line : loreLines) {
+            lore.add(formatter.apply(line));
         }
         return this;
     }
 
+    /**
+     * Inserts lines into the lore, shifting the following lines down.
+     *
+     * @param index     The index of the first inserted line, the current amount of lines to append them.
+     * @param loreLines The lines to insert.
+     * @return The ItemBuilder itself.
+     * @throws IndexOutOfBoundsException If the index is negative or larger than the amount of lines.
+     */
+    public ItemBuilder insertLore(int index, Component... loreLines) {
+        editLore().addAll(index, Arrays.asList(loreLines));
+        return this;
+    }
+
+    /**
+     * Replaces a single lore line.
+     *
+     * @param index    The index of the line to replace.
+     * @param loreLine The new line.
+     * @return The ItemBuilder itself.
+     * @throws IndexOutOfBoundsException If the item has no line with the index.
+     */
+    public ItemBuilder setLoreLine(int index, Component loreLine) {
+        editLore().set(index, loreLine);
+        return this;
+    }
+
     public ItemBuilder damage(short damage) {
         if (stack instanceof Damageable damageable) {
             damageable.setDamage(damage);
@@ -206,12 +514,20 @@ public class ItemBuilder {
     }
 
     public ItemBuilder name(Component name) {
-        meta.itemName(name);
+        if (writesComponents()) {
+            stack.setData(DataComponentTypes.ITEM_NAME, name);
+        } else {
+            meta().itemName(name);
+        }
         return this;
     }
 
     public ItemBuilder unbreakable() {
-        meta.setUnbreakable(true);
+        if (writesComponents()) {
+            stack.setData(DataComponentTypes.UNBREAKABLE);
+        } else {
+            meta().setUnbreakable(true);
+        }
         return this;
     }
 
@@ -220,27 +536,328 @@ public class ItemBuilder {
     }
 
     public ItemBuilder flag(ItemFlag flag) {
-        meta.addItemFlags(flag);
+        meta().addItemFlags(flag);
+        return this;
+    }
+
+    /**
+     * Applies the recorded edits of the recipe to this item.
+     *
+     * @param recipe The recipe to apply.
+     * @return The ItemBuilder itself.
+     * @throws IllegalArgumentException If the recipe contains typed edits that don't match this item's meta, see
+     *                                  {@link ItemRecipe#isCompatible(ItemMeta)}. Nothing is changed then.
+     */
+    public ItemBuilder apply(ItemRecipe recipe) {
+        // the recipe reads and changes the lore of the meta
+        writeLore();
+        if (!recipe.apply(stack, meta())) {
+            throw new IllegalArgumentException("Recipe " + recipe + " has typed edits that don't apply to " + stack.getType());
+        }
         return this;
     }
 
     /**
      * Often the final method used with an ItemBuilder.
      * Applies the internal {@link ItemMeta} to the {@link ItemStack} and returns it.
-     * You can technically still use the ItemBuilder object after using this method.
+     * If the meta was never touched, nothing has to be applied and the stack is returned as is.
+     * You can technically still use the ItemBuilder object after using this method: building again only writes the
+     * meta if it was changed since the last build, otherwise the same, already built stack is returned right away.
+     * Changes made directly to the returned stack are therefore kept until the meta is changed through the builder.
      *
      * @return Returns the itemStack with everything applied.
      */
     public ItemStack build() {
-        stack.setItemMeta(meta);
+        ItemBuilderMetrics metrics = ItemBuilder.metrics;
+        if (metrics == null) {
+            applyMeta();
+            return stack;
+        }
+        long start = System.nanoTime();
+        if (applyMeta()) {
+            metrics.onMetaWrite(getClass());
+        }
+        metrics.onBuild(getClass(), System.nanoTime() - start);
         return stack;
     }
 
+    /**
+     * Writes changes a typed builder buffers outside the meta, e.g. the contents of a bundle, into the meta.
+     * Called before every meta write, inside the timed part of {@link #build()}.
+     */
+    void writeBuffered() {
+    }
+
+    /**
+     * Writes the buffered changes and lore and then the meta to the stack if it changed since the last build.
+     * With {@link Backend#DATA_COMPONENTS} the written meta is dropped afterwards, so changes made after the build
+     * only write the changed components instead of the whole meta again.
+     *
+     * @return Returns true if the meta had to be written to the stack.
+     */
+    private boolean applyMeta() {
+        writeBuffered();
+        writeLore();
+        if (meta == null || !metaDirty) {
+            return false;
+        }
+        stack.setItemMeta(meta);
+        metaDirty = false;
+        if (backend == Backend.DATA_COMPONENTS) {
+            meta = null;
+        }
+        return true;
+    }
+
+    /**
+     * Resets this builder to a new, untouched item of the given type, so the builder instance can be reused for the
+     * next item instead of creating a new one, see {@link ItemBuilderPool}.
+     * Stacks returned by earlier builds are not affected. Typed builders reject a type their meta doesn't apply to
+     * before anything is changed, and reset their typed properties (e.g. a leather color) to the defaults of the type.
+     *
+     * @param type The material of the next item.
+     * @return The ItemBuilder itself.
+     */
+    public ItemBuilder reset(Material type) {
+        stack = new ItemStack(type);
+        meta = null;
+        metaDirty = false;
+        loreBuffered = false;
+        return this;
+    }
+
+    /**
+     * Returns the item from the cache, see {@link ItemCache#get(ItemBuilder)}. Only the first request for an item
+     * writes the meta, every further one gets a copy of the cached stack.
+     *
+     * @param cache The cache to look the item up in.
+     * @return Returns a copy of the cached item that is not shared with this builder.
+     */
+    public ItemStack buildCached(ItemCache cache) {
+        return cache.get(this);
+    }
+
+    /**
+     * Writes everything applied so far to the stack and returns a snapshot of it. The snapshot is the key and, on a
+     * miss, the cached item itself, so builders describing the same item share an entry no matter whether their
+     * changes went through the meta or the data components. A lookup costs writing pending changes (which the next
+     * build then skips), one stack copy and hashing its components.
+     *
+     * @return Returns an independent copy of the built item stack.
+     */
+    ItemStack cacheKey() {
+        applyMeta();
+        return stack.clone();
+    }
+
+    /**
+     * Builds the item and returns a copy that is not shared with this builder.
+     * Unlike the result of {@link #build()}, the snapshot is not changed by later calls on this builder and can
+     * safely be passed to another thread.
+     *
+     * @return Returns an independent copy of the built item stack.
+     */
+    public ItemStack buildSnapshot() {
+        return build().clone();
+    }
+
+    /**
+     * Creates and builds an item on the given executor, e.g. a virtual-thread executor.
+     * The builder is created by the supplier on the executor thread and never shared.
+     *
+     * @param builder  Creates the configured builder.
+     * @param executor The executor to build on.
+     * @return Returns a future completed with a snapshot of the built item.
+     */
+    public static CompletableFuture<ItemStack> buildAsync(Supplier<? extends ItemBuilder> builder, Executor executor) {
+        return buildAsync(builder, executor, ItemBuilderStatistics.captureCaller());
+    }
+
+    private static CompletableFuture<ItemStack> buildAsync(Supplier<? extends ItemBuilder> builder, Executor executor,
+                                                           @Nullable ItemBuilderStatistics.Caller caller) {
+        return CompletableFuture.supplyAsync(() -> ItemBuilderStatistics.attributed(caller,
+                () -> builder.get().buildSnapshot()), executor);
+    }
+
+    /**
+     * Creates and builds many items concurrently on the given executor, e.g. all items of a GUI page.
+     *
+     * @param builders One supplier per item, each creating the configured builder.
+     * @param executor The executor to build on.
+     * @return Returns a future completed with snapshots of the built items, in the order of the suppliers.
+     */
+    public static CompletableFuture<List<ItemStack>> buildAsync(List<? extends Supplier<? extends ItemBuilder>> builders,
+                                                                Executor executor) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<ItemStack>[] futures = new CompletableFuture[builders.size()];
+        ItemBuilderStatistics.Caller caller = ItemBuilderStatistics.captureCaller();
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = buildAsync(builders.get(i), executor, caller);
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            List<ItemStack> items = new ArrayList<>(futures.length);
+            for (CompletableFuture<ItemStack> future : futures) {
+                items.add(future.join());
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Builds many variants of this item in one pass, see {@link #buildMany(ItemBuilder, int, BiConsumer)}.
+     * The builder passed to the customizer has the type of this builder, use the static method to get it typed.
+     *
+     * @param count      The amount of variants to build.
+     * @param customizer Applies the differences of the variant with the given index.
+     * @return Returns an array with one item stack per variant, in index order.
+     */
+    public ItemStack[] buildMany(int count, BiConsumer<Integer, ItemBuilder> customizer) {
+        return buildMany(this, count, customizer, this::variant);
+    }
+
+    /**
+     * Builds one variant of this item per element, see {@link #buildMany(int, BiConsumer)}.
+     *
+     * @param elements   The elements to build a variant for.
+     * @param customizer Applies the differences of the variant for the given element.
+     * @return Returns a list with one item stack per element, in the order of the elements.
+     */
+    public <T> List<ItemStack> buildAll(List<T> elements, BiConsumer<T, ItemBuilder> customizer) {
+        return Arrays.asList(buildMany(elements.size(), (i, variant) -> customizer.accept(elements.get(i), variant)));
+    }
+
+    /**
+     * Builds many variants of an item in one pass.
+     * The state of the builder is applied once, every variant starts from a copy of the result and the customizer
+     * only needs to apply the differences (amount, a lore line, a potion effect, a pattern, ...). The customizer gets
+     * a builder of the same type as the given one, so the typed setters can be used:
+     * <pre>{@code
+     * ItemBuilder.buildMany(ItemBuilder.potion().splash(), 3, (i, variant) -> variant.effect(effects.get(i)));
+     * }</pre>
+     * The builders passed to the customizer must not be kept.
+     *
+     * @param builder    The builder of the item all variants are based on.
+     * @param count      The amount of variants to build.
+     * @param customizer Applies the differences of the variant with the given index.
+     * @return Returns an array with one item stack per variant, in index order.
+     */
+    public static <B extends ItemBuilder> ItemStack[] buildMany(B builder, int count,
+                                                                BiConsumer<Integer, ? super B> customizer) {
+        return buildMany(builder, count, customizer, stack -> typedVariant(builder, stack));
+    }
+
+    private static <B extends ItemBuilder> ItemStack[] buildMany(B builder, int count,
+                                                                 BiConsumer<Integer, ? super B> customizer,
+                                                                 Function<ItemStack, ? extends B> variantFactory) {
+        ItemStack base = builder.build();
+        ItemStack[] variants = new ItemStack[count];
+        for (int i = 0; i < count; i++) {
+            B variant = variantFactory.apply(base.clone());
+            customizer.accept(i, variant);
+            variants[i] = variant.build();
+        }
+        return variants;
+    }
+
+    /**
+     * Builds one variant of an item per element, see {@link #buildMany(ItemBuilder, int, BiConsumer)}.
+     *
+     * @param builder    The builder of the item all variants are based on.
+     * @param elements   The elements to build a variant for.
+     * @param customizer Applies the differences of the variant for the given element.
+     * @return Returns a list with one item stack per element, in the order of the elements.
+     */
+    public static <B extends ItemBuilder, T> List<ItemStack> buildAll(B builder, List<T> elements,
+                                                                      BiConsumer<T, ? super B> customizer) {
+        return Arrays.asList(buildMany(builder, elements.size(),
+                (i, variant) -> customizer.accept(elements.get(i), variant)));
+    }
+
+    private static <B extends ItemBuilder> B typedVariant(B builder, ItemStack stack) {
+        ItemBuilder variant = builder.variant(stack);
+        if (variant.getClass() != builder.getClass()) {
+            throw new IllegalStateException(builder.getClass().getName() + " has to override variant(ItemStack)");
+        }
+        @SuppressWarnings("unchecked")
+        B typed = (B) variant;
+        return typed;
+    }
+
+    /**
+     * Creates a builder of the same type as this one for a variant of the built item, see
+     * {@link #buildMany(ItemBuilder, int, BiConsumer)}. Typed builders override this to return their own type and to
+     * carry over state that isn't part of the stack.
+     *
+     * @param stack The copy of the built item the variant starts from.
+     * @return Returns a new builder editing the stack.
+     */
+    protected ItemBuilder variant(ItemStack stack) {
+        return new ItemBuilder(stack);
+    }
+
+    /**
+     * Builds one variant of this item per value, e.g. per color or per potion form.
+     * The item is built once and its meta is copied once, the varying part of that shared meta is changed for every
+     * value and applied to a new stack of the value's type. The builder itself is not changed.
+     *
+     * @param values The values to build a variant for.
+     * @param type   The material of the variant for a value.
+     * @param apply  Changes the shared meta for a value, the changes are kept for the following values.
+     * @return Returns one item stack per value, in the order of the values.
+     */
+    protected <V, M extends ItemMeta> List<ItemStack> variants(Collection<? extends V> values,
+                                                               Function<? super V, Material> type,
+                                                               BiConsumer<M, ? super V> apply) {
+        ItemStack base = build();
+        @SuppressWarnings("unchecked")
+        M shared = (M) base.getItemMeta();
+        List<ItemStack> variants = new ArrayList<>(values.size());
+        for (V value : values) {
+            apply.accept(shared, value);
+            ItemStack variant = new ItemStack(type.apply(value), base.getAmount());
+            variant.setItemMeta(shared);
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    /**
+     * Changes the material of the item while keeping everything applied so far.
+     *
+     * @param type The new material, its meta type has to be compatible with the current one.
+     */
+    protected void changeType(Material type) {
+        applyMeta();
+        stack = stack.withType(type);
+        meta = null;
+    }
+
+    /**
+     * Builds the item once and freezes the result into an immutable {@link ItemTemplate}.
+     * Use this for items that are created over and over with the same arguments: the meta mutations run once and
+     * every {@link ItemTemplate#create()} afterwards only copies the finished stack.
+     * Later changes to this ItemBuilder do not affect the returned template.
+     *
+     * @return Returns a template holding a copy of the built item stack.
+     */
+    public ItemTemplate toTemplate() {
+        return new ItemTemplate(build().clone());
+    }
+
     /**
      * @return Returns a clone of the item meta without applying anything. Should only be used to read information from the item meta
      */
     public ItemMeta getItemMeta() {
-        return meta.clone();
+        ItemBuilderMetrics metrics = ItemBuilder.metrics;
+        if (metrics != null) {
+            metrics.onMetaClone(getClass());
+        }
+        // reading doesn't change the meta, so it must not be marked dirty
+        ItemMeta copy = meta == null ? stack.getItemMeta() : meta.clone();
+        if (loreBuffered && copy != null) {
+            copy.lore(lore);
+        }
+        return copy;
     }
 
     /**
@@ -250,41 +867,222 @@ public class ItemBuilder {
         return stack.clone();
     }
 
+    /**
+     * Builds bundles and keeps track of their weight while items are added.
+     * <p>
+     * Weights are counted like vanilla does, in 1/64 of a bundle: every item weighs 64 divided by its max stack size
+     * (rounded up for unusual max stack sizes), a nested bundle weighs 4 plus the weight of its contents. Checking
+     * the remaining capacity costs constant time. Weighing a nested bundle stack reads its meta and scans its
+     * contents recursively; add nested bundles with {@link #addBundle(BundleBuilder)} or
+     * {@link #tryAddBundle(BundleBuilder)} and repeated items with {@link #tryAddItem(ItemTemplate)} to use their
+     * cached weights instead. Similar items are merged into full stacks when the bundle is built.
+     * </p>
+     */
     public static class BundleBuilder extends ItemBuilder {
-        protected BundleMeta bundleMeta;
-        protected List<ItemStack> items = null;
+        /**
+         * The weight of a full bundle.
+         */
+        public static final int CAPACITY = 64;
+        private static final int NESTED_BUNDLE_WEIGHT = 4;
+
+        /**
+         * The contents by a single item of each kind, in insertion order.
+         */
+        private final Map<ItemStack, Integer> contents = new LinkedHashMap<>();
+        private int weight;
+        private boolean itemsChanged;
 
         public BundleBuilder() {
             super(Material.BUNDLE);
         }
 
+        private BundleBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected BundleBuilder variant(ItemStack stack) {
+            BundleBuilder variant = new BundleBuilder(stack);
+            variant.contents.putAll(contents);
+            variant.weight = weight;
+            return variant;
+        }
+
+        protected BundleMeta bundleMeta() {
+            return (BundleMeta) meta();
+        }
+
+        /**
+         * Replaces the contents of the bundle.
+         */
         public BundleBuilder setItems(List<ItemStack> items) {
-            this.items = items;
-            return this;
+            contents.clear();
+            weight = 0;
+            itemsChanged = true;
+            return addItems(items);
         }
 
+        /**
+         * Adds the item even if the bundle is already full, see {@link #tryAddItem(ItemStack)}.
+         */
         public BundleBuilder addItem(ItemStack item) {
-            if (this.items == null) {
-                items = new ArrayList<>();
-            }
-            this.items.add(item);
+            add(item, weightOf(item));
             return this;
         }
 
         public BundleBuilder addItems(ItemStack... items) {
-            if (this.items == null) {
-                this.items = new ArrayList<>();
+            for (ItemStack item : items) {
+                addItem(item);
             }
+            return this;
+        }
+
+        public BundleBuilder addItems(Collection<ItemStack> items) {
             for (ItemStack item : items) {
-                this.items.add(item);
+                addItem(item);
             }
             return this;
         }
 
+        /**
+         * Adds an item built from the template. The weight of a bundle template is only computed once.
+         */
+        public BundleBuilder addItem(ItemTemplate template) {
+            add(template.create(), template.bundleWeight());
+            return this;
+        }
+
+        /**
+         * Adds the bundle built by the given builder as a nested bundle. Its weight is known without a rescan.
+         */
+        public BundleBuilder addBundle(BundleBuilder bundle) {
+            add(bundle.buildSnapshot(), NESTED_BUNDLE_WEIGHT + bundle.weight);
+            return this;
+        }
+
+        /**
+         * Adds the item only if it fits into the remaining capacity. Nested bundle stacks are scanned to weigh them,
+         * see {@link #tryAddBundle(BundleBuilder)}.
+         *
+         * @return Returns true if the item was added.
+         */
+        public boolean tryAddItem(ItemStack item) {
+            int itemWeight = weightOf(item);
+            if (weight + itemWeight > CAPACITY) {
+                return false;
+            }
+            add(item, itemWeight);
+            return true;
+        }
+
+        /**
+         * Adds an item built from the template only if it fits into the remaining capacity.
+         * Uses the cached weight of the template, the item is only created if it fits.
+         *
+         * @return Returns true if the item was added.
+         */
+        public boolean tryAddItem(ItemTemplate template) {
+            int itemWeight = template.bundleWeight();
+            if (weight + itemWeight > CAPACITY) {
+                return false;
+            }
+            add(template.create(), itemWeight);
+            return true;
+        }
+
+        /**
+         * Adds the bundle built by the given builder as a nested bundle, only if it fits into the remaining capacity.
+         * Its weight is known without a rescan, the bundle is only built if it fits.
+         *
+         * @return Returns true if the bundle was added.
+         */
+        public boolean tryAddBundle(BundleBuilder bundle) {
+            int bundleWeight = NESTED_BUNDLE_WEIGHT + bundle.weight;
+            if (weight + bundleWeight > CAPACITY) {
+                return false;
+            }
+            add(bundle.buildSnapshot(), bundleWeight);
+            return true;
+        }
+
+        /**
+         * @return Returns true if the item fits into the remaining capacity.
+         */
+        public boolean fits(ItemStack item) {
+            return weight + weightOf(item) <= CAPACITY;
+        }
+
+        /**
+         * @return Returns the weight of the contents, {@link #CAPACITY} for a full bundle.
+         */
+        public int weight() {
+            return weight;
+        }
+
+        public int remainingCapacity() {
+            return Math.max(0, CAPACITY - weight);
+        }
+
+        public boolean isFull() {
+            return weight >= CAPACITY;
+        }
+
+        private void add(ItemStack item, int itemWeight) {
+            // keyed by a single item, so similar stacks of any amount end up in the same entry
+            if (item.isEmpty()) {
+                return;
+            }
+            contents.merge(item.asOne(), item.getAmount(), Integer::sum);
+            weight += itemWeight;
+            itemsChanged = true;
+        }
+
+        /**
+         * Weighs a stack. Nested bundles are weighed by reading their meta and scanning their contents recursively.
+         *
+         * @return Returns the weight of the whole stack in 1/64 of a bundle.
+         */
+        static int weightOf(ItemStack item) {
+            if (item.isEmpty()) {
+                return 0;
+            }
+            if (MaterialCapabilities.has(item.getType(), Capability.BUNDLE)
+                    && item.getItemMeta() instanceof BundleMeta nested) {
+                int contentWeight = 0;
+                for (ItemStack content : nested.getItems()) {
+                    contentWeight += weightOf(content);
+                }
+                return (NESTED_BUNDLE_WEIGHT + contentWeight) * item.getAmount();
+            }
+            return Math.ceilDiv(CAPACITY, item.getMaxStackSize()) * item.getAmount();
+        }
+
+        @Override
+        public BundleBuilder reset(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.BUNDLE)) {
+                throw new IllegalArgumentException("Cannot reset BundleBuilder to non-bundle material " + type);
+            }
+            super.reset(type);
+            contents.clear();
+            weight = 0;
+            itemsChanged = false;
+            return this;
+        }
+
         @Override
-        public ItemStack build() {
-            bundleMeta.setItems(this.items);
-            return super.build();
+        void writeBuffered() {
+            if (itemsChanged) {
+                List<ItemStack> items = new ArrayList<>(contents.size());
+                for (Map.Entry<ItemStack, Integer> content : contents.entrySet()) {
+                    ItemStack item = content.getKey();
+                    int maxStackSize = item.getMaxStackSize();
+                    for (int left = content.getValue(); left > 0; left -= maxStackSize) {
+                        items.add(item.asQuantity(Math.min(left, maxStackSize)));
+                    }
+                }
+                bundleMeta().setItems(items);
+                itemsChanged = false;
+            }
         }
     }
 
@@ -293,32 +1091,48 @@ public class ItemBuilder {
     }
 
     public static class DamageableItemBuilder extends ItemBuilder {
-        protected Damageable damageableMeta;
-
         public DamageableItemBuilder(Material type) {
             super(type);
-            checkMeta();
+            checkType(type);
         }
 
         public DamageableItemBuilder(ItemStack stack) {
             super(stack);
-            checkMeta();
+            checkType(stack.getType());
         }
 
-        private void checkMeta() {
-            if (this.meta instanceof Damageable) {
-                damageableMeta = (Damageable) this.meta;
-            } else
+        @Override
+        protected DamageableItemBuilder variant(ItemStack stack) {
+            return new DamageableItemBuilder(stack);
+        }
+
+        @Override
+        public DamageableItemBuilder reset(Material type) {
+            checkType(type);
+            super.reset(type);
+            return this;
+        }
+
+        private static void checkType(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.DAMAGEABLE))
                 throw new IllegalArgumentException("Cannot instantiate DamageableItemBuilder with non-damageable item material.");
         }
 
+        protected Damageable damageableMeta() {
+            return (Damageable) meta();
+        }
+
         public DamageableItemBuilder damage(int damage) {
-            this.damageableMeta.setDamage(damage);
+            if (writesComponents()) {
+                stack.setData(DataComponentTypes.DAMAGE, damage);
+            } else {
+                damageableMeta().setDamage(damage);
+            }
             return this;
         }
 
         public DamageableItemBuilder maxDamage(@Nullable Integer damage) {
-            this.damageableMeta.setMaxDamage(damage);
+            damageableMeta().setMaxDamage(damage);
             return this;
         }
     }
@@ -331,9 +1145,22 @@ public class ItemBuilder {
         return new DamageableItemBuilder(itemStackToEdit);
     }
 
-    public static class ArmorBuilder extends DamageableItemBuilder {
-        protected ArmorMeta armorMeta;
+    /**
+     * Like {@link #damageable(Material)}, but returns null instead of throwing if the material isn't damageable.
+     */
+    public static @Nullable DamageableItemBuilder tryDamageable(Material type) {
+        return MaterialCapabilities.has(type, Capability.DAMAGEABLE) ? new DamageableItemBuilder(type) : null;
+    }
 
+    /**
+     * Like {@link #editDamageable(ItemStack)}, but returns null instead of throwing if the item isn't damageable.
+     */
+    public static @Nullable DamageableItemBuilder tryEditDamageable(ItemStack itemStackToEdit) {
+        return MaterialCapabilities.has(itemStackToEdit.getType(), Capability.DAMAGEABLE)
+                ? new DamageableItemBuilder(itemStackToEdit) : null;
+    }
+
+    public static class ArmorBuilder extends DamageableItemBuilder {
         public ArmorBuilder(Material armorMaterial) {
             super(armorMaterial);
             checkMeta(armorMaterial);
@@ -344,17 +1171,39 @@ public class ItemBuilder {
             checkMeta(stack.getType());
         }
 
-        private void checkMeta(Material armorMaterial) {
-            if (meta instanceof ArmorMeta) {
-                this.armorMeta = (ArmorMeta) meta;
-            } else
+        @Override
+        protected ArmorBuilder variant(ItemStack stack) {
+            return new ArmorBuilder(stack);
+        }
+
+        @Override
+        public ArmorBuilder reset(Material armorMaterial) {
+            checkMeta(armorMaterial);
+            super.reset(armorMaterial);
+            return this;
+        }
+
+        private static void checkMeta(Material armorMaterial) {
+            if (!MaterialCapabilities.has(armorMaterial, Capability.ARMOR))
                 throw new IllegalArgumentException("Cannot instantiate TrimmedArmorBuilder with non-armor item material: " + armorMaterial + " (you need to be able to add armor trims to it)");
         }
 
+        protected ArmorMeta armorMeta() {
+            return (ArmorMeta) meta();
+        }
+
         public ArmorBuilder setTrim(ArmorTrim armorTrim) {
-            this.armorMeta.setTrim(armorTrim);
+            armorMeta().setTrim(armorTrim);
             return this;
         }
+
+        /**
+         * Builds one variant per trim, sharing everything else, see {@link #variants(Collection, Function, BiConsumer)}.
+         */
+        public List<ItemStack> trimVariants(Collection<ArmorTrim> trims) {
+            Material type = stack.getType();
+            return this.<ArmorTrim, ArmorMeta>variants(trims, trim -> type, ArmorMeta::setTrim);
+        }
     }
 
     public static ArmorBuilder armor(Material armorMaterial) {
@@ -371,13 +1220,62 @@ public class ItemBuilder {
         return new ArmorBuilder(armorItemStackToEdit);
     }
 
-    public static class AxolotlBucketBuilder extends ItemBuilder {
-        protected AxolotlBucketMeta axolotlBucketMeta;
+    /**
+     * Like {@link #armor(Material)}, but returns null instead of throwing if the material can't be trimmed.
+     */
+    public static @Nullable ArmorBuilder tryArmor(Material armorMaterial) {
+        return isArmor(armorMaterial) ? new ArmorBuilder(armorMaterial) : null;
+    }
+
+    /**
+     * Like {@link #editArmor(ItemStack)}, but returns null instead of throwing if the item can't be trimmed.
+     */
+    public static @Nullable ArmorBuilder tryEditArmor(ItemStack armorItemStackToEdit) {
+        return isArmor(armorItemStackToEdit.getType()) ? new ArmorBuilder(armorItemStackToEdit) : null;
+    }
+
+    private static boolean isArmor(Material type) {
+        return MaterialCapabilities.has(type, Capability.DAMAGEABLE) && MaterialCapabilities.has(type, Capability.ARMOR);
+    }
 
+    public static class AxolotlBucketBuilder extends ItemBuilder {
         public AxolotlBucketBuilder(Axolotl.Variant variant) {
             super(Material.AXOLOTL_BUCKET);
-            this.axolotlBucketMeta = (AxolotlBucketMeta) this.meta;
-            this.axolotlBucketMeta.setVariant(variant);
+            axolotlBucketMeta().setVariant(variant);
+        }
+
+        private AxolotlBucketBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected AxolotlBucketBuilder variant(ItemStack stack) {
+            return new AxolotlBucketBuilder(stack);
+        }
+
+        /**
+         * Resets this builder to an axolotl bucket with the default variant, see {@link #reset(Axolotl.Variant)}.
+         */
+        @Override
+        public AxolotlBucketBuilder reset(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.AXOLOTL_BUCKET)) {
+                throw new IllegalArgumentException("Cannot reset AxolotlBucketBuilder to non-'axolotl bucket' material " + type);
+            }
+            super.reset(type);
+            return this;
+        }
+
+        /**
+         * Resets this builder to an axolotl bucket with the given variant, see {@link ItemBuilder#reset(Material)}.
+         */
+        public AxolotlBucketBuilder reset(Axolotl.Variant variant) {
+            reset(Material.AXOLOTL_BUCKET);
+            axolotlBucketMeta().setVariant(variant);
+            return this;
+        }
+
+        protected AxolotlBucketMeta axolotlBucketMeta() {
+            return (AxolotlBucketMeta) meta();
         }
     }
 
@@ -386,44 +1284,59 @@ public class ItemBuilder {
     }
 
     public static class ArmorStandBuilder extends ItemBuilder {
-        protected ArmorStandMeta armorStandMeta;
-
         public ArmorStandBuilder() {
             super(Material.ARMOR_STAND);
-            this.armorStandMeta = (ArmorStandMeta) meta;
         }
 
         public ArmorStandBuilder(ItemStack itemStack) {
             super(itemStack);
-            if (this.meta instanceof ArmorStandMeta) {
-                this.armorStandMeta = (ArmorStandMeta) meta;
-            } else {
-                throw new IllegalArgumentException("Cannot instantiate ArmorStandBuilder with non-'armor stand' item material: " + itemStack.getType());
+            checkType(itemStack.getType());
+        }
+
+        @Override
+        protected ArmorStandBuilder variant(ItemStack stack) {
+            return new ArmorStandBuilder(stack);
+        }
+
+        @Override
+        public ArmorStandBuilder reset(Material type) {
+            checkType(type);
+            super.reset(type);
+            return this;
+        }
+
+        private static void checkType(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.ARMOR_STAND)) {
+                throw new IllegalArgumentException("Cannot instantiate ArmorStandBuilder with non-'armor stand' item material: " + type);
             }
         }
 
+        protected ArmorStandMeta armorStandMeta() {
+            return (ArmorStandMeta) meta();
+        }
+
         public ArmorStandBuilder showArms() {
-            this.armorStandMeta.setShowArms(true);
+            armorStandMeta().setShowArms(true);
             return this;
         }
 
         public ArmorStandBuilder invisible() {
-            this.armorStandMeta.setInvisible(true);
+            armorStandMeta().setInvisible(true);
             return this;
         }
 
         public ArmorStandBuilder noBasePlate() {
-            this.armorStandMeta.setNoBasePlate(true);
+            armorStandMeta().setNoBasePlate(true);
             return this;
         }
 
         public ArmorStandBuilder small() {
-            this.armorStandMeta.setSmall(true);
+            armorStandMeta().setSmall(true);
             return this;
         }
 
         public ArmorStandBuilder marker() {
-            this.armorStandMeta.setMarker(true);
+            armorStandMeta().setMarker(true);
             return this;
         }
     }
@@ -436,25 +1349,46 @@ public class ItemBuilder {
         return new ArmorStandBuilder(itemStack);
     }
 
+    /**
+     * Like {@link #editArmorStand(ItemStack)}, but returns null instead of throwing if the item isn't an armor stand.
+     */
+    public static @Nullable ArmorStandBuilder tryEditArmorStand(ItemStack itemStack) {
+        return MaterialCapabilities.has(itemStack.getType(), Capability.ARMOR_STAND) ? new ArmorStandBuilder(itemStack) : null;
+    }
+
     public static class BannerBuilder extends ItemBuilder {
-        private final BannerMeta bannerMeta;
+        public BannerBuilder(DyeColor color) {
+            super(colorToMaterial(color));
+        }
+
+        public BannerBuilder(ItemStack itemStack) {
+            super(itemStack);
+            checkType(itemStack.getType());
+        }
+
+        @Override
+        protected BannerBuilder variant(ItemStack stack) {
+            return new BannerBuilder(stack);
+        }
 
-        public BannerBuilder(DyeColor color) {
-            this.stack = new ItemStack(colorToMaterial(color));
-            this.meta = stack.getItemMeta();
-            this.bannerMeta = (BannerMeta) meta;
+        @Override
+        public BannerBuilder reset(Material type) {
+            checkType(type);
+            super.reset(type);
+            return this;
         }
 
-        public BannerBuilder(ItemStack itemStack) {
-            super(itemStack);
-            if (this.meta instanceof BannerMeta) {
-                this.bannerMeta = (BannerMeta) meta;
-            } else {
-                throw new IllegalArgumentException("Cannot instantiate BannerBuilder with non-banner material " +  itemStack.getType());
+        private static void checkType(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.BANNER)) {
+                throw new IllegalArgumentException("Cannot instantiate BannerBuilder with non-banner material " + type);
             }
         }
 
-        private Material colorToMaterial(DyeColor color) {
+        private BannerMeta bannerMeta() {
+            return (BannerMeta) meta();
+        }
+
+        private static Material colorToMaterial(DyeColor color) {
             return switch (color) {
                 case WHITE -> Material.WHITE_BANNER;
                 case ORANGE -> Material.ORANGE_BANNER;
@@ -478,19 +1412,31 @@ public class ItemBuilder {
 
         @Contract(value = "_ -> this")
         public BannerBuilder patterns(List<Pattern> patterns) {
-            this.bannerMeta.setPatterns(patterns);
+            if (writesComponents()) {
+                ItemComponents.patterns(stack, patterns);
+            } else {
+                bannerMeta().setPatterns(patterns);
+            }
             return this;
         }
 
         @Contract(value = "_ -> this")
         public BannerBuilder pattern(Pattern pattern) {
-            this.bannerMeta.addPattern(pattern);
+            if (writesComponents()) {
+                ItemComponents.addPattern(stack, pattern);
+            } else {
+                bannerMeta().addPattern(pattern);
+            }
             return this;
         }
 
         @Contract(value = "_, _ -> this")
         public BannerBuilder pattern(int i, Pattern pattern) {
-            this.bannerMeta.setPattern(i, pattern);
+            if (writesComponents()) {
+                ItemComponents.setPattern(stack, i, pattern);
+            } else {
+                bannerMeta().setPattern(i, pattern);
+            }
             return this;
         }
 
@@ -499,6 +1445,22 @@ public class ItemBuilder {
             this.stack = this.stack.withType(colorToMaterial(color));
             return this;
         }
+
+        /**
+         * Builds one variant per background color with the same patterns and properties.
+         */
+        public List<ItemStack> colorVariants(Collection<DyeColor> colors) {
+            return this.<DyeColor, ItemMeta>variants(colors, BannerBuilder::colorToMaterial, (meta, color) -> {
+            });
+        }
+
+        /**
+         * Builds one variant per background color, see {@link #colorVariants(Collection)}.
+         * Without colors, one variant per {@link DyeColor} is built.
+         */
+        public List<ItemStack> colorVariants(DyeColor... colors) {
+            return colorVariants(Arrays.asList(colors.length == 0 ? DyeColor.values() : colors));
+        }
     }
 
     public static BannerBuilder banner(DyeColor backgroundColor) {
@@ -513,13 +1475,71 @@ public class ItemBuilder {
         return new BannerBuilder(itemStack);
     }
 
+    /**
+     * Like {@link #editBanner(ItemStack)}, but returns null instead of throwing if the item isn't a banner.
+     */
+    public static @Nullable BannerBuilder tryEditBanner(ItemStack itemStack) {
+        return MaterialCapabilities.has(itemStack.getType(), Capability.BANNER) ? new BannerBuilder(itemStack) : null;
+    }
+
     public static class ShieldBuilder extends BannerBuilder {
         public ShieldBuilder(DyeColor color) {
-            super(color);
+            super(new ItemStack(Material.SHIELD));
+            backgroundColor(color);
         }
 
         public ShieldBuilder(ItemStack itemStack) {
             super(itemStack);
+            checkShield(itemStack.getType());
+        }
+
+        @Override
+        protected ShieldBuilder variant(ItemStack stack) {
+            return new ShieldBuilder(stack);
+        }
+
+        @Override
+        public ShieldBuilder reset(Material type) {
+            checkShield(type);
+            super.reset(type);
+            return this;
+        }
+
+        private static void checkShield(Material type) {
+            if (type != Material.SHIELD) {
+                throw new IllegalArgumentException("Cannot instantiate ShieldBuilder with non-shield material " + type);
+            }
+        }
+
+        private ShieldMeta shieldMeta() {
+            return (ShieldMeta) meta();
+        }
+
+        /**
+         * Sets the base color of the shield, the material stays {@link Material#SHIELD}.
+         *
+         * @param color The base color, or null for an undyed shield.
+         */
+        @Override
+        public ShieldBuilder backgroundColor(@Nullable DyeColor color) {
+            if (writesComponents()) {
+                if (color == null) {
+                    stack.unsetData(DataComponentTypes.BASE_COLOR);
+                } else {
+                    stack.setData(DataComponentTypes.BASE_COLOR, color);
+                }
+            } else {
+                shieldMeta().setBaseColor(color);
+            }
+            return this;
+        }
+
+        /**
+         * Builds one shield per base color with the same patterns and properties.
+         */
+        @Override
+        public List<ItemStack> colorVariants(Collection<DyeColor> colors) {
+            return this.<DyeColor, ShieldMeta>variants(colors, color -> Material.SHIELD, ShieldMeta::setBaseColor);
         }
 
         @Override
@@ -553,12 +1573,73 @@ public class ItemBuilder {
     public static class LeatherArmorBuilder extends ArmorBuilder {
         public LeatherArmorBuilder(Material type, Color color) {
             super(type);
-            if (!Bukkit.getItemFactory()
-                    .isApplicable(Bukkit.getItemFactory().getItemMeta(Material.LEATHER_BOOTS), type)) {
+            checkLeather(type);
+            ((LeatherArmorMeta) meta()).setColor(color);
+        }
+
+        private LeatherArmorBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected LeatherArmorBuilder variant(ItemStack stack) {
+            return new LeatherArmorBuilder(stack);
+        }
+
+        /**
+         * Resets this builder to undyed leather armor of the given type, see {@link #reset(Material, Color)}.
+         */
+        @Override
+        public LeatherArmorBuilder reset(Material type) {
+            checkLeather(type);
+            super.reset(type);
+            return this;
+        }
+
+        /**
+         * Resets this builder to leather armor of the given type and color, see {@link ItemBuilder#reset(Material)}.
+         */
+        public LeatherArmorBuilder reset(Material type, Color color) {
+            reset(type);
+            ((LeatherArmorMeta) meta()).setColor(color);
+            return this;
+        }
+
+        /**
+         * Builds one variant per color with the same trim and properties.
+         */
+        public List<ItemStack> colorVariants(Collection<Color> colors) {
+            Material type = stack.getType();
+            return this.<Color, LeatherArmorMeta>variants(colors, color -> type, LeatherArmorMeta::setColor);
+        }
+
+        public List<ItemStack> colorVariants(Color... colors) {
+            return colorVariants(Arrays.asList(colors));
+        }
+
+        /**
+         * Builds every combination of color and trim, color by color: all trims of the first color come first.
+         */
+        public List<ItemStack> colorTrimVariants(Collection<Color> colors, Collection<ArmorTrim> trims) {
+            List<Map.Entry<Color, ArmorTrim>> combinations = new ArrayList<>(colors.size() * trims.size());
+            for (Color color : colors) {
+                for (ArmorTrim trim : trims) {
+                    combinations.add(Map.entry(color, trim));
+                }
+            }
+            Material type = stack.getType();
+            return this.<Map.Entry<Color, ArmorTrim>, ColorableArmorMeta>variants(combinations, combination -> type,
+                    (meta, combination) -> {
+                        meta.setColor(combination.getKey());
+                        meta.setTrim(combination.getValue());
+                    });
+        }
+
+        private static void checkLeather(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.LEATHER_ARMOR)) {
                 throw new IllegalArgumentException(
                         "The provided type is not applicable for a leather armor");
             }
-            ((LeatherArmorMeta) meta).setColor(color);
         }
     }
 
@@ -566,36 +1647,75 @@ public class ItemBuilder {
         return new LeatherArmorBuilder(type, color);
     }
 
-    public static class PlayerHeadBuilder extends ItemBuilder {
+    /**
+     * Like {@link #leatherArmor(Material, Color)}, but returns null instead of throwing if the material isn't leather armor.
+     */
+    public static @Nullable LeatherArmorBuilder tryLeatherArmor(Material type, Color color) {
+        return isArmor(type) && MaterialCapabilities.has(type, Capability.LEATHER_ARMOR)
+                ? new LeatherArmorBuilder(type, color) : null;
+    }
 
-        private SkullMeta skullMeta;
+    public static class PlayerHeadBuilder extends ItemBuilder {
 
         public PlayerHeadBuilder(OfflinePlayer player) {
             super(Material.PLAYER_HEAD);
-            this.skullMeta = (SkullMeta) meta;
-            this.skullMeta.setOwningPlayer(player);
+            skullMeta().setOwningPlayer(player);
+        }
+
+        public PlayerHeadBuilder(PlayerProfile profile) {
+            super(Material.PLAYER_HEAD);
+            profile(profile);
         }
 
         public PlayerHeadBuilder(ItemStack itemStack) {
-            this.stack = itemStack;
-            this.meta = itemStack.getItemMeta();
-            if (this.meta instanceof SkullMeta) {
-                this.skullMeta = (SkullMeta) this.meta;
+            super(itemStack);
+        }
+
+        @Override
+        protected PlayerHeadBuilder variant(ItemStack stack) {
+            return new PlayerHeadBuilder(stack);
+        }
+
+        @Override
+        public PlayerHeadBuilder reset(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.SKULL)) {
+                throw new IllegalArgumentException("Cannot reset PlayerHeadBuilder to non-head material " + type);
             }
+            super.reset(type);
+            return this;
+        }
+
+        private SkullMeta skullMeta() {
+            return (SkullMeta) meta();
         }
 
         public PlayerHeadBuilder owningPlayer(UUID uuid) {
-            this.owningPlayer(Bukkit.getOfflinePlayer(uuid));
+            this.owningPlayer(offlinePlayer(uuid));
             return this;
         }
 
         public PlayerHeadBuilder owningPlayer(String playerName) {
-            this.owningPlayer(Bukkit.getOfflinePlayer(playerName));
+            this.owningPlayer(offlinePlayer(playerName));
             return this;
         }
 
         public PlayerHeadBuilder owningPlayer(OfflinePlayer player) {
-            this.skullMeta.setOwningPlayer(player);
+            skullMeta().setOwningPlayer(player);
+            return this;
+        }
+
+        /**
+         * Sets the profile of the head. Never makes a network call, use a {@link PlayerHeadResolver} to get completed
+         * profiles without blocking.
+         *
+         * @param profile The profile to use, should contain the textures property for the head to show a skin
+         */
+        public PlayerHeadBuilder profile(PlayerProfile profile) {
+            if (writesComponents()) {
+                ItemComponents.profile(stack, profile);
+            } else {
+                skullMeta().setPlayerProfile(profile);
+            }
             return this;
         }
     }
@@ -617,15 +1737,16 @@ public class ItemBuilder {
      * @param uuid the UUID of the player that the head belongs to.
      */
     public static PlayerHeadBuilder playerHead(UUID uuid) {
-        return new PlayerHeadBuilder(Bukkit.getOfflinePlayer(uuid));
+        return new PlayerHeadBuilder(offlinePlayer(uuid));
     }
 
     /**
-     * Creates a new {@link PlayerHeadBuilder}. May involve a network call to figure out the player from its name
+     * Creates a new {@link PlayerHeadBuilder}. May involve a network call to figure out the player from its name.
+     * Use a {@link PlayerHeadResolver} on the main thread instead.
      * @param playerName The name of the player that the head belongs to
      */
     public static PlayerHeadBuilder playerHead(String playerName) {
-        return new PlayerHeadBuilder(Bukkit.getOfflinePlayer(playerName));
+        return new PlayerHeadBuilder(offlinePlayer(playerName));
     }
 
     /**
@@ -652,32 +1773,67 @@ public class ItemBuilder {
         return new PlayerHeadBuilder(player);
     }
 
+    /**
+     * Creates a PlayerHeadBuilder from an already resolved profile. Does not make any network call.
+     *
+     * @param profile The profile of the head, see {@link PlayerHeadResolver} to resolve profiles asynchronously
+     */
+    public static PlayerHeadBuilder playerHead(PlayerProfile profile) {
+        return new PlayerHeadBuilder(profile);
+    }
+
     public static class FireworkEffectBuilder extends ItemBuilder {
 
+        public FireworkEffectBuilder() {
+        }
+
+        private FireworkEffectBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected FireworkEffectBuilder variant(ItemStack stack) {
+            return new FireworkEffectBuilder(stack);
+        }
     }
 
     public static class FireworkRocketBuilder extends ItemBuilder {
-        private FireworkMeta fireworkMeta;
-
         public FireworkRocketBuilder() {
             super(Material.FIREWORK_ROCKET);
-            this.fireworkMeta = (FireworkMeta) this.meta;
         }
 
         public FireworkRocketBuilder(ItemStack itemStack) {
-            this.stack = itemStack;
-            this.meta = itemStack.getItemMeta();
-            if (this.meta instanceof FireworkMeta) {
-                this.fireworkMeta = (FireworkMeta) this.meta;
-            } else throw new IllegalArgumentException("Has to be a stack with material type firework rocket");
+            super(itemStack);
+            checkType(itemStack.getType());
+        }
+
+        @Override
+        protected FireworkRocketBuilder variant(ItemStack stack) {
+            return new FireworkRocketBuilder(stack);
+        }
+
+        @Override
+        public FireworkRocketBuilder reset(Material type) {
+            checkType(type);
+            super.reset(type);
+            return this;
+        }
+
+        private static void checkType(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.FIREWORK))
+                throw new IllegalArgumentException("Has to be a stack with material type firework rocket");
+        }
+
+        private FireworkMeta fireworkMeta() {
+            return (FireworkMeta) meta();
         }
 
         public FireworkRocketBuilder addEffects(FireworkEffect... fireworkEffects) {
-            this.fireworkMeta.addEffects(fireworkEffects);
+            fireworkMeta().addEffects(fireworkEffects);
             return this;
         }
         public FireworkRocketBuilder addEffect(FireworkEffect fireworkEffect) {
-            this.fireworkMeta.addEffect(fireworkEffect);
+            fireworkMeta().addEffect(fireworkEffect);
             return this;
         }
     }
@@ -690,37 +1846,98 @@ public class ItemBuilder {
         return new FireworkRocketBuilder(fireworkRocket);
     }
 
-    public static class WrittenBookBuilder extends ItemBuilder {
+    /**
+     * Like {@link #editFireworkRocket(ItemStack)}, but returns null instead of throwing if the item isn't a firework rocket.
+     */
+    public static @Nullable FireworkRocketBuilder tryEditFireworkRocket(ItemStack fireworkRocket) {
+        return MaterialCapabilities.has(fireworkRocket.getType(), Capability.FIREWORK)
+                ? new FireworkRocketBuilder(fireworkRocket) : null;
+    }
 
-        protected BookMeta bm;
+    public static class WrittenBookBuilder extends ItemBuilder {
 
         public WrittenBookBuilder() {
             super(Material.WRITTEN_BOOK);
-            this.bm = (BookMeta) meta;
+        }
+
+        private WrittenBookBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected WrittenBookBuilder variant(ItemStack stack) {
+            return new WrittenBookBuilder(stack);
+        }
+
+        @Override
+        public WrittenBookBuilder reset(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.BOOK)) {
+                throw new IllegalArgumentException("Cannot reset WrittenBookBuilder to non-book material " + type);
+            }
+            super.reset(type);
+            return this;
+        }
+
+        protected BookMeta bookMeta() {
+            return (BookMeta) meta();
         }
 
         public WrittenBookBuilder pages(Component... pages) {
             //noinspection ResultOfMethodCallIgnored
-            this.bm.pages(pages);
+            bookMeta().pages(pages);
             return this;
         }
 
         public WrittenBookBuilder pages(List<Component> pages) {
             //noinspection ResultOfMethodCallIgnored
-            this.bm.pages(pages);
+            bookMeta().pages(pages);
             return this;
         }
 
         public WrittenBookBuilder author(Component author) {
-            this.bm.author(author);
+            bookMeta().author(author);
             return this;
         }
 
         public WrittenBookBuilder title(Component title) {
-            this.bm.title(title);
+            bookMeta().title(title);
+            return this;
+        }
+
+        /**
+         * Splits the text into pages and adds them to the book, see {@link BookPaginator}.
+         * Text beyond {@link BookPaginator#MAX_PAGES} pages (including the pages the book already has) is dropped,
+         * use a {@link BookPaginator} directly to split longer texts into several books.
+         *
+         * @param text The text, its children and their styles are kept.
+         */
+        public WrittenBookBuilder paginate(Component text) {
+            paginator().append(text).finish();
+            return this;
+        }
+
+        /**
+         * Reads the text, splits it into pages and adds them to the book, see {@link #paginate(Component)}.
+         * The reader isn't read any further once the book is full.
+         *
+         * @param text  The source of the text. Isn't closed.
+         * @param style The style of the whole text.
+         * @throws IOException If reading fails.
+         */
+        public WrittenBookBuilder paginate(Reader text, Style style) throws IOException {
+            paginator().append(text, style).finish();
             return this;
         }
 
+        /**
+         * @return Returns a paginator adding pages to this book until it holds {@link BookPaginator#MAX_PAGES}.
+         */
+        private BookPaginator paginator() {
+            BookMeta bookMeta = bookMeta();
+            int remaining = Math.max(0, BookPaginator.MAX_PAGES - bookMeta.getPageCount());
+            return new BookPaginator(bookMeta::addPages, remaining);
+        }
+
     }
 
     public static WrittenBookBuilder writtenBook() {
@@ -729,18 +1946,82 @@ public class ItemBuilder {
 
     public static class EnchantedBookBuilder extends ItemBuilder {
 
-        protected EnchantmentStorageMeta enchantmentStorageMeta;
-
         public EnchantedBookBuilder() {
             super(Material.ENCHANTED_BOOK);
-            this.enchantmentStorageMeta = (EnchantmentStorageMeta) meta;
+        }
+
+        private EnchantedBookBuilder(ItemStack stack) {
+            super(stack);
+        }
+
+        @Override
+        protected EnchantedBookBuilder variant(ItemStack stack) {
+            return new EnchantedBookBuilder(stack);
+        }
+
+        @Override
+        public EnchantedBookBuilder reset(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.ENCHANTMENT_STORAGE)) {
+                throw new IllegalArgumentException("Cannot reset EnchantedBookBuilder to material without stored enchantments " + type);
+            }
+            super.reset(type);
+            return this;
+        }
+
+        protected EnchantmentStorageMeta enchantmentStorageMeta() {
+            return (EnchantmentStorageMeta) meta();
         }
 
         public EnchantedBookBuilder storeEnchant(Enchantment enchantment, int level) {
-            this.enchantmentStorageMeta.addStoredEnchant(enchantment, level, true);
+            enchantmentStorageMeta().addStoredEnchant(enchantment, level, true);
+            return this;
+        }
+
+        /**
+         * Stores all enchantments of the set, keeping the other stored enchantments.
+         */
+        public EnchantedBookBuilder storeEnchants(EnchantmentSet enchantments) {
+            if (enchantments.isEmpty()) {
+                return this;
+            }
+            if (writesComponents()) {
+                ItemComponents.addEnchantments(stack, DataComponentTypes.STORED_ENCHANTMENTS, enchantments.asMap());
+                return this;
+            }
+            EnchantmentStorageMeta meta = enchantmentStorageMeta();
+            enchantments.forEach((enchantment, level) -> meta.addStoredEnchant(enchantment, level, true));
+            return this;
+        }
+
+        /**
+         * Replaces all stored enchantments with the set, writing its prebuilt component with both backends.
+         */
+        public EnchantedBookBuilder setStoredEnchants(EnchantmentSet enchantments) {
+            ItemComponents.setEnchantments(componentStack(), DataComponentTypes.STORED_ENCHANTMENTS, enchantments);
+            return this;
+        }
+
+        /**
+         * Removes every stored enchantment of the set, regardless of its level. The remaining stored enchantments
+         * are written in a single component write, with both backends.
+         */
+        public EnchantedBookBuilder removeStoredEnchants(EnchantmentSet enchantments) {
+            if (!enchantments.isEmpty()) {
+                ItemComponents.removeEnchantments(componentStack(), DataComponentTypes.STORED_ENCHANTMENTS, enchantments);
+            }
             return this;
         }
 
+        /**
+         * Checks whether the book already stores every enchantment of the set at its level.
+         */
+        public boolean hasStoredEnchants(EnchantmentSet enchantments) {
+            Map<Enchantment, Integer> stored = meta == null
+                    ? ItemComponents.enchantments(stack, DataComponentTypes.STORED_ENCHANTMENTS)
+                    : ((EnchantmentStorageMeta) meta).getStoredEnchants();
+            return enchantments.isContainedIn(stored);
+        }
+
     }
 
     public static EnchantedBookBuilder enchantedBook() {
@@ -749,35 +2030,94 @@ public class ItemBuilder {
 
     public static class PotionBuilder extends ItemBuilder {
 
-        private PotionMeta potionMeta;
-
         public PotionBuilder() {
-            this.stack = new ItemStack(Material.POTION);
-            this.potionMeta = (PotionMeta) stack.getItemMeta();
+            super(Material.POTION);
         }
 
-        public PotionBuilder splash() {
-            this.stack = this.stack.withType(Material.SPLASH_POTION);
-            this.potionMeta = (PotionMeta) stack.getItemMeta();
+        public PotionBuilder(ItemStack itemStack) {
+            super(itemStack);
+            checkType(itemStack.getType());
+        }
+
+        @Override
+        protected PotionBuilder variant(ItemStack stack) {
+            return new PotionBuilder(stack);
+        }
+
+        @Override
+        public PotionBuilder reset(Material type) {
+            checkType(type);
+            super.reset(type);
             return this;
         }
 
-        public PotionBuilder drinkable() {
-            this.stack = this.stack.withType(Material.POTION);
-            this.potionMeta = (PotionMeta) stack.getItemMeta();
+        private static void checkType(Material type) {
+            if (!MaterialCapabilities.has(type, Capability.POTION)) {
+                throw new IllegalArgumentException("Cannot instantiate PotionBuilder with non-potion material " + type);
+            }
+        }
+
+        private PotionMeta potionMeta() {
+            return (PotionMeta) meta();
+        }
+
+        /**
+         * The items a potion can take the form of.
+         */
+        public enum Form {
+            DRINKABLE(Material.POTION),
+            SPLASH(Material.SPLASH_POTION),
+            LINGERING(Material.LINGERING_POTION),
+            TIPPED_ARROW(Material.TIPPED_ARROW);
+
+            private final Material type;
+
+            Form(Material type) {
+                this.type = type;
+            }
+
+            public Material type() {
+                return type;
+            }
+        }
+
+        /**
+         * Changes the form of the potion, keeping the effects and everything else added so far.
+         */
+        public PotionBuilder form(Form form) {
+            changeType(form.type());
             return this;
         }
 
+        public PotionBuilder splash() {
+            return form(Form.SPLASH);
+        }
+
+        public PotionBuilder drinkable() {
+            return form(Form.DRINKABLE);
+        }
+
         public PotionBuilder lingering() {
-            this.stack = this.stack.withType(Material.LINGERING_POTION);
-            this.potionMeta = (PotionMeta) stack.getItemMeta();
-            return this;
+            return form(Form.LINGERING);
         }
 
         public PotionBuilder tippedArrow() {
-            this.stack = this.stack.withType(Material.TIPPED_ARROW);
-            this.potionMeta = (PotionMeta) stack.getItemMeta();
-            return this;
+            return form(Form.TIPPED_ARROW);
+        }
+
+        /**
+         * Builds the potion once per form with the same effects and properties.
+         */
+        public List<ItemStack> formVariants(Collection<Form> forms) {
+            return this.<Form, ItemMeta>variants(forms, Form::type, (meta, form) -> {
+            });
+        }
+
+        /**
+         * Builds the potion once per form, see {@link #formVariants(Collection)}. Without forms, every form is built.
+         */
+        public List<ItemStack> formVariants(Form... forms) {
+            return formVariants(Arrays.asList(forms.length == 0 ? Form.values() : forms));
         }
 
         /**
@@ -786,8 +2126,7 @@ public class ItemBuilder {
          * @param effect the potion effect to add
          */
         public PotionBuilder effect(PotionEffect effect) {
-            this.potionMeta.addCustomEffect(effect, false);
-            return this;
+            return effect(effect, false);
         }
 
         /**
@@ -797,7 +2136,11 @@ public class ItemBuilder {
          * @param overwrite true if any existing effect of the same type should be
          */
         public PotionBuilder effect(PotionEffect effect, boolean overwrite) {
-            this.potionMeta.addCustomEffect(effect, overwrite);
+            if (writesComponents()) {
+                ItemComponents.addPotionEffect(stack, effect, overwrite);
+            } else {
+                potionMeta().addCustomEffect(effect, overwrite);
+            }
             return this;
         }
     }
@@ -805,4 +2148,15 @@ public class ItemBuilder {
     public static PotionBuilder potion() {
         return new PotionBuilder();
     }
+
+    public static PotionBuilder editPotion(ItemStack itemStack) {
+        return new PotionBuilder(itemStack);
+    }
+
+    /**
+     * Like {@link #editPotion(ItemStack)}, but returns null instead of throwing if the item isn't a potion.
+     */
+    public static @Nullable PotionBuilder tryEditPotion(ItemStack itemStack) {
+        return MaterialCapabilities.has(itemStack.getType(), Capability.POTION) ? new PotionBuilder(itemStack) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package openbukkitutils.itembuilder;
+
+/**
+ * Listener for the hot paths of {@link ItemBuilder}, installed with {@link ItemBuilder#setMetrics(ItemBuilderMetrics)}.
+ * <p>
+ * Without an installed listener the builders only do a single null check and don't allocate anything.
+ * Callbacks run synchronously on the thread using the builder and should be cheap. {@link ItemBuilderStatistics} is a
+ * ready-to-use implementation with counters and latency histograms per calling plugin.
+ * </p>
+ */
+public interface ItemBuilderMetrics {
+
+    /**
+     * Called after {@link ItemBuilder#build()}.
+     *
+     * @param builderType The class of the builder
+     * @param nanos       The time the build took
+     */
+    default void onBuild(Class<? extends ItemBuilder> builderType, long nanos) {
+    }
+
+    /**
+     * Called when a builder fetches the meta of its stack with {@link org.bukkit.inventory.ItemStack#getItemMeta()}.
+     */
+    default void onMetaFetch(Class<? extends ItemBuilder> builderType) {
+    }
+
+    /**
+     * Called when {@link ItemBuilder#getItemMeta()} clones the meta.
+     */
+    default void onMetaClone(Class<? extends ItemBuilder> builderType) {
+    }
+
+    /**
+     * Called when a build writes the meta with {@link org.bukkit.inventory.ItemStack#setItemMeta(org.bukkit.inventory.meta.ItemMeta)}.
+     */
+    default void onMetaWrite(Class<? extends ItemBuilder> builderType) {
+    }
+
+    /**
+     * Called when the lore of an item is set.
+     *
+     * @param lines The amount of lore lines
+     */
+    default void onLore(Class<? extends ItemBuilder> builderType, int lines) {
+    }
+
+    /**
+     * Called after a player head builder looked up a player with {@code Bukkit.getOfflinePlayer}.
+     *
+     * @param nanos The time the lookup took
+     */
+    default void onOfflinePlayerLookup(long nanos) {
+    }
+}
@@ -0,0 +1,256 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link ItemBuilderMetrics} implementation that counts every event and records latency histograms, grouped by the
+ * plugin that called the builder and the builder type.
+ * <p>
+ * Finding the calling plugin walks the stack, so installing this listener has a noticeable cost per event.
+ * Install it while investigating and remove it afterwards. Builds the library runs later or on other threads
+ * ({@link ItemBuilder#buildAsync(Supplier, java.util.concurrent.Executor)}, {@link ItemSource} prefetches and
+ * {@link BuildScheduler} jobs) are attributed to the plugin that submitted them.
+ * </p>
+ */
+public final class ItemBuilderStatistics implements ItemBuilderMetrics {
+
+    private static final String UNKNOWN_PLUGIN = "unknown";
+    private static final String PACKAGE = ItemBuilder.class.getPackageName();
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    /**
+     * The caller captured when the work running on this thread was submitted, see {@link #attributed(Caller, Supplier)}.
+     */
+    private static final ThreadLocal<Caller> SUBMITTER = new ThreadLocal<>();
+    private static final ClassValue<Optional<Plugin>> PROVIDING_PLUGINS = new ClassValue<>() {
+        @Override
+        protected Optional<Plugin> computeValue(Class<?> type) {
+            try {
+                return Optional.of(JavaPlugin.getProvidingPlugin(type));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final Map<Source, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> offlinePlayerLookups = new ConcurrentHashMap<>();
+
+    /**
+     * @return Returns the plugin whose code called into the builders on the current thread, or null if the caller
+     * does not belong to a plugin.
+     */
+    public static @Nullable Plugin callingPlugin() {
+        Caller submitter = SUBMITTER.get();
+        if (submitter != null) {
+            return submitter.plugin();
+        }
+        return WALKER.walk(frames -> frames
+                        .map(StackWalker.StackFrame::getDeclaringClass)
+                        .filter(type -> !isLibraryFrame(type.getPackageName()))
+                        .findFirst())
+                .flatMap(PROVIDING_PLUGINS::get)
+                .orElse(null);
+    }
+
+    /**
+     * Executor, future and thread frames of the JDK are skipped, so work started from them is still attributed to
+     * the plugin further up the stack, if there is one.
+     */
+    private static boolean isLibraryFrame(String packageName) {
+        return packageName.equals(PACKAGE) || packageName.startsWith("java.") || packageName.startsWith("jdk.")
+                || packageName.startsWith("sun.");
+    }
+
+    /**
+     * Captures the calling plugin for work that runs later or on another thread.
+     *
+     * @return Returns the caller, or null without walking the stack if no statistics are installed.
+     */
+    static @Nullable Caller captureCaller() {
+        return ItemBuilder.metrics() instanceof ItemBuilderStatistics ? new Caller(callingPlugin()) : null;
+    }
+
+    /**
+     * Runs the task with its events attributed to the captured caller instead of the current stack.
+     *
+     * @param caller The caller from {@link #captureCaller()}, or null to run the task as is.
+     */
+    static <T> T attributed(@Nullable Caller caller, Supplier<T> task) {
+        if (caller == null) {
+            return task.get();
+        }
+        Caller previous = SUBMITTER.get();
+        SUBMITTER.set(caller);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                SUBMITTER.remove();
+            } else {
+                SUBMITTER.set(previous);
+            }
+        }
+    }
+
+    private static String callingPluginName() {
+        Plugin plugin = callingPlugin();
+        return plugin == null ? UNKNOWN_PLUGIN : plugin.getName();
+    }
+
+    private Counters counters(Class<? extends ItemBuilder> builderType) {
+        return counters.computeIfAbsent(new Source(callingPluginName(), builderType), source -> new Counters());
+    }
+
+    @Override
+    public void onBuild(Class<? extends ItemBuilder> builderType, long nanos) {
+        counters(builderType).builds.record(nanos);
+    }
+
+    @Override
+    public void onMetaFetch(Class<? extends ItemBuilder> builderType) {
+        counters(builderType).metaFetches.increment();
+    }
+
+    @Override
+    public void onMetaClone(Class<? extends ItemBuilder> builderType) {
+        counters(builderType).metaClones.increment();
+    }
+
+    @Override
+    public void onMetaWrite(Class<? extends ItemBuilder> builderType) {
+        counters(builderType).metaWrites.increment();
+    }
+
+    @Override
+    public void onLore(Class<? extends ItemBuilder> builderType, int lines) {
+        Counters counters = counters(builderType);
+        counters.loreWrites.increment();
+        counters.loreLines.add(lines);
+    }
+
+    @Override
+    public void onOfflinePlayerLookup(long nanos) {
+        offlinePlayerLookups.computeIfAbsent(callingPluginName(), plugin -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * @return Returns the counters of every plugin and builder type that used a builder since the last reset.
+     */
+    public Map<Source, Counters> counters() {
+        return Map.copyOf(counters);
+    }
+
+    /**
+     * @return Returns the latencies of {@code Bukkit.getOfflinePlayer} calls by plugin name.
+     */
+    public Map<String, Histogram> offlinePlayerLookups() {
+        return Map.copyOf(offlinePlayerLookups);
+    }
+
+    public void reset() {
+        counters.clear();
+        offlinePlayerLookups.clear();
+    }
+
+    /**
+     * @param plugin The plugin that submitted the work, or null if it doesn't belong to a plugin.
+     */
+    record Caller(@Nullable Plugin plugin) {
+    }
+
+    /**
+     * @param plugin      The name of the calling plugin, or {@code "unknown"}
+     * @param builderType The class of the builder
+     */
+    public record Source(String plugin, Class<? extends ItemBuilder> builderType) {
+    }
+
+    public static final class Counters {
+        private final Histogram builds = new Histogram();
+        private final LongAdder metaFetches = new LongAdder();
+        private final LongAdder metaClones = new LongAdder();
+        private final LongAdder metaWrites = new LongAdder();
+        private final LongAdder loreWrites = new LongAdder();
+        private final LongAdder loreLines = new LongAdder();
+
+        /**
+         * @return Returns the latency histogram of {@link ItemBuilder#build()}, its count is the amount of builds.
+         */
+        public Histogram builds() {
+            return builds;
+        }
+
+        public long metaFetches() {
+            return metaFetches.sum();
+        }
+
+        public long metaClones() {
+            return metaClones.sum();
+        }
+
+        public long metaWrites() {
+            return metaWrites.sum();
+        }
+
+        public long loreWrites() {
+            return loreWrites.sum();
+        }
+
+        public long loreLines() {
+            return loreLines.sum();
+        }
+    }
+
+    /**
+     * A lock-free latency histogram with power-of-two buckets.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double meanNanos() {
+            long count = count();
+            return count == 0 ? 0 : (double) totalNanos.sum() / count;
+        }
+
+        /**
+         * @param percentile The percentile between 0 and 1, e.g. 0.99
+         * @return Returns an upper bound of the given percentile in nanoseconds, accurate to a factor of two.
+         */
+        public long percentileNanos(double percentile) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
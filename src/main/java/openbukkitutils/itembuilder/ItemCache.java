@@ -0,0 +1,159 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A size-bounded cache of built items, keyed by the state of the builder that describes them.
+ * <p>
+ * Existing factory chains use the cache by replacing {@code build()} with {@link ItemBuilder#buildCached(ItemCache)}:
+ * <pre>{@code
+ * ItemStack back = ItemBuilder.item(Material.ARROW).name(Component.text("Back")).buildCached(cache);
+ * }</pre>
+ * The builder's changes are written to its stack to get the key, so builder lookups mostly save memory: equal
+ * items share one cached stack. Items described by an {@link ItemSpec}, e.g. loaded or received from another server,
+ * skip the builder entirely on a hit.
+ * </p>
+ * <p>
+ * Each item is built once, every request afterwards gets a defensive copy of the cached stack. When the cache is
+ * full, the least recently used item is evicted. Use {@link #stats()} to see how well the cache is sized.
+ * The cache is thread-safe.
+ * </p>
+ */
+public final class ItemCache {
+
+    /**
+     * Keyed by {@link ItemSpec}s and by built stacks, see {@link ItemBuilder#cacheKey()}.
+     */
+    private final Map<Object, ItemStack> items;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maximumSize The maximum amount of cached items.
+     */
+    public ItemCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize has to be positive");
+        }
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, ItemStack> eldest) {
+                if (size() > maximumSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the item described by the spec, building it on the first request.
+     *
+     * @param spec The description of the item.
+     * @return Returns a copy of the cached item that can be changed freely.
+     */
+    public ItemStack get(ItemSpec spec) {
+        return get(spec, () -> spec.toBuilder().buildSnapshot());
+    }
+
+    /**
+     * Returns the item the builder describes, building it only if no equal item is cached yet.
+     * The key is a snapshot of the built item, so two builders describing the same item share one cached item. The
+     * pending changes of the builder are written to its stack for the key, the builder can still be changed
+     * afterwards. On a hit this saves the stack copies a miss makes for the cache and the caller.
+     *
+     * @param builder The configured builder.
+     * @return Returns a copy of the cached item that can be changed freely.
+     */
+    public ItemStack get(ItemBuilder builder) {
+        ItemStack key = builder.cacheKey();
+        // the key is a private copy and only copies of cached items are handed out, so it can be the item as well
+        return get(key, () -> key);
+    }
+
+    private ItemStack get(Object key, Supplier<ItemStack> build) {
+        ItemStack cached;
+        synchronized (items) {
+            cached = items.get(key);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (cached == null) {
+            ItemStack built = build.get();
+            synchronized (items) {
+                cached = items.putIfAbsent(key, built);
+            }
+            if (cached == null) {
+                cached = built;
+            }
+        }
+        return cached.clone();
+    }
+
+    /**
+     * Removes the cached item of the given spec.
+     */
+    public void invalidate(ItemSpec spec) {
+        synchronized (items) {
+            items.remove(spec);
+        }
+    }
+
+    /**
+     * Removes the cached item the builder describes.
+     */
+    public void invalidate(ItemBuilder builder) {
+        Object key = builder.cacheKey();
+        synchronized (items) {
+            items.remove(key);
+        }
+    }
+
+    /**
+     * Removes all cached items. The statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (items) {
+            items.clear();
+        }
+    }
+
+    /**
+     * @return Returns a snapshot of the hit, miss and eviction counters.
+     */
+    public Stats stats() {
+        synchronized (items) {
+            return new Stats(hits, misses, evictions, items.size());
+        }
+    }
+
+    /**
+     * @param hits      The amount of requests answered from the cache
+     * @param misses    The amount of requests that had to build the item
+     * @param evictions The amount of items removed because the cache was full
+     * @param size      The amount of currently cached items
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        public long requests() {
+            return hits + misses;
+        }
+
+        public double hitRate() {
+            return requests() == 0 ? 1.0 : (double) hits / requests();
+        }
+
+        public double missRate() {
+            return requests() == 0 ? 0.0 : (double) misses / requests();
+        }
+    }
+}
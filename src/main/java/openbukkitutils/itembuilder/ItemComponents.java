@@ -0,0 +1,142 @@
+package openbukkitutils.itembuilder;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import io.papermc.paper.datacomponent.DataComponentType;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.BannerPatternLayers;
+import io.papermc.paper.datacomponent.item.ItemEnchantments;
+import io.papermc.paper.datacomponent.item.ItemLore;
+import io.papermc.paper.datacomponent.item.PotionContents;
+import io.papermc.paper.datacomponent.item.ResolvableProfile;
+import net.kyori.adventure.text.Component;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes item properties directly as data components, used by {@link ItemBuilder.Backend#DATA_COMPONENTS}.
+ * Every method reads the current component value, so the result is the same as going through the item meta.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class ItemComponents {
+
+    private ItemComponents() {
+    }
+
+    static void lore(ItemStack stack, List<Component> lore) {
+        stack.setData(DataComponentTypes.LORE, ItemLore.lore(lore));
+    }
+
+    static List<Component> lore(ItemStack stack) {
+        ItemLore current = stack.getData(DataComponentTypes.LORE);
+        return current == null ? List.of() : current.lines();
+    }
+
+    static void addEnchantments(ItemStack stack, Map<Enchantment, Integer> enchantments) {
+        addEnchantments(stack, DataComponentTypes.ENCHANTMENTS, enchantments);
+    }
+
+    /**
+     * Adds the enchantments to the given enchantment component, {@link DataComponentTypes#ENCHANTMENTS} or
+     * {@link DataComponentTypes#STORED_ENCHANTMENTS}, in a single write.
+     */
+    static void addEnchantments(ItemStack stack, DataComponentType.Valued<ItemEnchantments> type,
+                                Map<Enchantment, Integer> enchantments) {
+        ItemEnchantments current = stack.getData(type);
+        if (current == null || current.enchantments().isEmpty()) {
+            stack.setData(type, ItemEnchantments.itemEnchantments(enchantments));
+            return;
+        }
+        ItemEnchantments.Builder builder = ItemEnchantments.itemEnchantments();
+        builder.addAll(current.enchantments());
+        builder.addAll(enchantments);
+        stack.setData(type, builder.build());
+    }
+
+    /**
+     * Replaces the enchantments of the given enchantment component with the set, reusing its prebuilt component.
+     */
+    static void setEnchantments(ItemStack stack, DataComponentType.Valued<ItemEnchantments> type, EnchantmentSet set) {
+        stack.setData(type, set.component());
+    }
+
+    static void removeEnchantments(ItemStack stack, DataComponentType.Valued<ItemEnchantments> type,
+                                   EnchantmentSet set) {
+        ItemEnchantments current = stack.getData(type);
+        if (current == null || current.enchantments().isEmpty()) {
+            return;
+        }
+        ItemEnchantments.Builder builder = ItemEnchantments.itemEnchantments();
+        for (Map.Entry<Enchantment, Integer> entry : current.enchantments().entrySet()) {
+            if (set.level(entry.getKey()) == 0) {
+                builder.add(entry.getKey(), entry.getValue());
+            }
+        }
+        stack.setData(type, builder.build());
+    }
+
+    static Map<Enchantment, Integer> enchantments(ItemStack stack, DataComponentType.Valued<ItemEnchantments> type) {
+        ItemEnchantments current = stack.getData(type);
+        return current == null ? Map.of() : current.enchantments();
+    }
+
+    static void addEnchantment(ItemStack stack, Enchantment enchantment, int level) {
+        addEnchantments(stack, Map.of(enchantment, level));
+    }
+
+    /**
+     * Adds the effect like {@link org.bukkit.inventory.meta.PotionMeta#addCustomEffect(PotionEffect, boolean)}.
+     */
+    static void addPotionEffect(ItemStack stack, PotionEffect effect, boolean overwrite) {
+        PotionContents current = stack.getData(DataComponentTypes.POTION_CONTENTS);
+        PotionContents.Builder builder = PotionContents.potionContents();
+        boolean added = false;
+        if (current != null) {
+            builder.potion(current.potion())
+                    .customColor(current.customColor())
+                    .customName(current.customName());
+            for (PotionEffect existing : current.customEffects()) {
+                if (existing.getType().equals(effect.getType())) {
+                    builder.addCustomEffect(overwrite ? effect : existing);
+                    added = true;
+                } else {
+                    builder.addCustomEffect(existing);
+                }
+            }
+        }
+        if (!added) {
+            builder.addCustomEffect(effect);
+        }
+        stack.setData(DataComponentTypes.POTION_CONTENTS, builder.build());
+    }
+
+    static void patterns(ItemStack stack, List<Pattern> patterns) {
+        stack.setData(DataComponentTypes.BANNER_PATTERNS, BannerPatternLayers.bannerPatternLayers(patterns));
+    }
+
+    static void addPattern(ItemStack stack, Pattern pattern) {
+        List<Pattern> patterns = currentPatterns(stack);
+        patterns.add(pattern);
+        patterns(stack, patterns);
+    }
+
+    static void setPattern(ItemStack stack, int i, Pattern pattern) {
+        List<Pattern> patterns = currentPatterns(stack);
+        patterns.set(i, pattern);
+        patterns(stack, patterns);
+    }
+
+    static void profile(ItemStack stack, PlayerProfile profile) {
+        stack.setData(DataComponentTypes.PROFILE, ResolvableProfile.resolvableProfile(profile));
+    }
+
+    private static List<Pattern> currentPatterns(ItemStack stack) {
+        BannerPatternLayers current = stack.getData(DataComponentTypes.BANNER_PATTERNS);
+        return current == null ? new ArrayList<>() : new ArrayList<>(current.patterns());
+    }
+}
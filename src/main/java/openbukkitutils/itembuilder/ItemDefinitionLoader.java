@@ -0,0 +1,455 @@
+package openbukkitutils.itembuilder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Color;
+import org.bukkit.DyeColor;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Axolotl;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.trim.ArmorTrim;
+import org.bukkit.potion.PotionEffect;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Loads item definitions from YAML ({@code .yml}, {@code .yaml}) and JSON ({@code .json}) files into
+ * {@link ItemTemplate}s, in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * Every file maps item ids to definitions. Names and lore lines are parsed with MiniMessage, registry entries
+ * (enchantments, patterns, effects, trims) are referenced by key:
+ * </p>
+ * <pre>{@code
+ * excalibur:
+ *   type: DIAMOND_SWORD
+ *   name: "<gold>Excalibur"
+ *   lore: ["<gray>Pulled from the stone"]
+ *   enchantments: {sharpness: 5, unbreaking: 3}
+ *   flags: [HIDE_ENCHANTS]
+ *   unbreakable: true
+ *   trim: {material: gold, pattern: coast}
+ * kingdom_banner:
+ *   type: RED_BANNER
+ *   patterns: [{color: WHITE, pattern: cross}]
+ * swiftness:
+ *   type: SPLASH_POTION
+ *   effects: [{type: speed, duration: 600, amplifier: 1, ambient: false, particles: true, icon: true}]
+ * }</pre>
+ * <p>
+ * The other supported fields are {@code amount}, {@code damage}, {@code max-damage}, {@code color} (leather armor,
+ * {@code "#rrggbb"}), {@code base-color} (shields), {@code owner} (player head UUID), {@code stored-enchantments}
+ * (enchanted books), {@code axolotl-variant} and {@code bundle-contents} (a list of nested definitions).
+ * Effects default to not ambient, with particles and with an icon. Fields the type doesn't support, e.g. patterns on
+ * a sword, are reported as errors.
+ * Files are loaded concurrently and the definitions of each file are built concurrently. A broken definition does
+ * not stop the others from loading, it is reported in the {@link FileReport} of its file. If several files define
+ * the same item id, the first file in the given order wins and the others report the duplicate, regardless of
+ * which file finished loading first.
+ * </p>
+ */
+public final class ItemDefinitionLoader {
+
+    private static final Set<String> FIELDS = Set.of("type", "amount", "name", "lore", "enchantments", "flags",
+            "unbreakable", "damage", "color", "patterns", "effects", "trim", "owner", "stored-enchantments",
+            "axolotl-variant", "max-damage", "base-color", "bundle-contents");
+
+    private final ForkJoinPool pool;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    /**
+     * Creates a loader running on the common fork-join pool.
+     */
+    public ItemDefinitionLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool The pool the files are loaded on.
+     */
+    public ItemDefinitionLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every definition file in the directory and its subdirectories.
+     *
+     * @param directory The directory to load.
+     * @return Returns the loaded templates and a report per file.
+     * @throws IOException If the directory can't be listed. Errors reading single files are reported instead.
+     */
+    public Result loadDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).filter(ItemDefinitionLoader::isDefinitionFile).sorted().toList();
+        }
+        return load(files);
+    }
+
+    /**
+     * Loads the given definition files. Item ids have to be unique across all files.
+     *
+     * @param files The files to load.
+     * @return Returns the loaded templates and a report per file, in the order of the files.
+     */
+    public Result load(Collection<Path> files) {
+        long start = System.nanoTime();
+        List<LoadedFile> loadedFiles = pool.submit(() -> files.parallelStream()
+                .map(this::loadFile)
+                .toList()).join();
+        // duplicates are resolved in file order after the parallel part, so the same files always give the same result
+        Map<String, ItemTemplate> templates = new LinkedHashMap<>();
+        Map<String, Path> definedIn = new LinkedHashMap<>();
+        List<FileReport> reports = new ArrayList<>(loadedFiles.size());
+        for (LoadedFile loadedFile : loadedFiles) {
+            List<String> errors = new ArrayList<>(loadedFile.errors());
+            int loaded = 0;
+            for (Map.Entry<String, ItemTemplate> entry : loadedFile.templates().entrySet()) {
+                Path first = definedIn.putIfAbsent(entry.getKey(), loadedFile.file());
+                if (first != null) {
+                    errors.add(entry.getKey() + ": duplicate item id, already defined in " + first);
+                } else {
+                    templates.put(entry.getKey(), entry.getValue());
+                    loaded++;
+                }
+            }
+            Collections.sort(errors);
+            reports.add(new FileReport(loadedFile.file(), loaded, errors, loadedFile.nanos()));
+        }
+        return new Result(Collections.unmodifiableMap(templates), reports, System.nanoTime() - start);
+    }
+
+    private LoadedFile loadFile(Path file) {
+        long start = System.nanoTime();
+        Map<String, Object> definitions;
+        try {
+            definitions = parse(file);
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            return new LoadedFile(file, Map.of(), List.of(String.valueOf(e.getMessage())), System.nanoTime() - start);
+        }
+        List<Map.Entry<String, Object>> entries = List.copyOf(definitions.entrySet());
+        ItemTemplate[] built = new ItemTemplate[entries.size()];
+        String[] errors = new String[entries.size()];
+        IntStream.range(0, entries.size()).parallel().forEach(i -> {
+            String id = entries.get(i).getKey();
+            try {
+                built[i] = spec(map(entries.get(i).getValue(), id)).toBuilder().toTemplate();
+            } catch (RuntimeException e) {
+                errors[i] = id + ": " + e.getMessage();
+            }
+        });
+        Map<String, ItemTemplate> templates = new LinkedHashMap<>();
+        List<String> fileErrors = new ArrayList<>();
+        for (int i = 0; i < built.length; i++) {
+            if (built[i] != null) {
+                templates.put(entries.get(i).getKey(), built[i]);
+            } else {
+                fileErrors.add(errors[i]);
+            }
+        }
+        return new LoadedFile(file, templates, fileErrors, System.nanoTime() - start);
+    }
+
+    /**
+     * The templates of one file in definition order, before duplicates across files are resolved.
+     */
+    private record LoadedFile(Path file, Map<String, ItemTemplate> templates, List<String> errors, long nanos) {
+    }
+
+    /**
+     * Parses a single definition.
+     *
+     * @param definition The fields of the definition, with nested maps and lists as produced by YAML or JSON parsers.
+     * @return Returns the spec described by the definition.
+     * @throws IllegalArgumentException If a field is unknown, missing or has an invalid value.
+     */
+    public ItemSpec spec(Map<String, ?> definition) {
+        for (String field : definition.keySet()) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("unknown field " + field);
+            }
+        }
+        String typeName = string(definition.get("type"), "type");
+        Material type = Material.matchMaterial(typeName);
+        if (type == null) {
+            throw new IllegalArgumentException("unknown material " + typeName);
+        }
+        ItemSpec.Builder spec = ItemSpec.spec(type);
+        if (definition.containsKey("amount")) {
+            spec.amount(integer(definition.get("amount"), "amount"));
+        }
+        if (definition.containsKey("name")) {
+            spec.name(component(definition.get("name"), "name"));
+        }
+        if (definition.containsKey("lore")) {
+            List<Component> lore = new ArrayList<>();
+            for (Object line : list(definition.get("lore"), "lore")) {
+                lore.add(component(line, "lore"));
+            }
+            spec.lore(lore);
+        }
+        if (definition.containsKey("enchantments")) {
+            map(definition.get("enchantments"), "enchantments").forEach((key, level) ->
+                    spec.enchant(registryEntry(Registry.ENCHANTMENT, key, "enchantment"), integer(level, key)));
+        }
+        if (definition.containsKey("flags")) {
+            for (Object flag : list(definition.get("flags"), "flags")) {
+                spec.flag(constant(ItemFlag.class, flag, "flags"));
+            }
+        }
+        if (definition.containsKey("unbreakable") && bool(definition.get("unbreakable"), "unbreakable")) {
+            spec.unbreakable();
+        }
+        if (definition.containsKey("damage")) {
+            spec.damage(integer(definition.get("damage"), "damage"));
+        }
+        if (definition.containsKey("color")) {
+            spec.color(color(definition.get("color")));
+        }
+        if (definition.containsKey("patterns")) {
+            for (Object entry : list(definition.get("patterns"), "patterns")) {
+                Map<String, Object> pattern = map(entry, "patterns");
+                spec.pattern(new Pattern(constant(DyeColor.class, pattern.get("color"), "pattern color"),
+                        registryEntry(Registry.BANNER_PATTERN, pattern.get("pattern"), "pattern")));
+            }
+        }
+        if (definition.containsKey("effects")) {
+            for (Object entry : list(definition.get("effects"), "effects")) {
+                Map<String, Object> effect = map(entry, "effects");
+                spec.effect(new PotionEffect(
+                        registryEntry(Registry.EFFECT, effect.get("type"), "effect"),
+                        integer(effect.get("duration"), "effect duration"),
+                        effect.containsKey("amplifier") ? integer(effect.get("amplifier"), "effect amplifier") : 0,
+                        effect.containsKey("ambient") && bool(effect.get("ambient"), "effect ambient"),
+                        !effect.containsKey("particles") || bool(effect.get("particles"), "effect particles"),
+                        !effect.containsKey("icon") || bool(effect.get("icon"), "effect icon")));
+            }
+        }
+        if (definition.containsKey("trim")) {
+            Map<String, Object> trim = map(definition.get("trim"), "trim");
+            spec.trim(new ArmorTrim(registryEntry(Registry.TRIM_MATERIAL, trim.get("material"), "trim material"),
+                    registryEntry(Registry.TRIM_PATTERN, trim.get("pattern"), "trim pattern")));
+        }
+        if (definition.containsKey("owner")) {
+            spec.owner(UUID.fromString(string(definition.get("owner"), "owner")));
+        }
+        if (definition.containsKey("stored-enchantments")) {
+            map(definition.get("stored-enchantments"), "stored-enchantments").forEach((key, level) ->
+                    spec.storeEnchant(registryEntry(Registry.ENCHANTMENT, key, "enchantment"), integer(level, key)));
+        }
+        if (definition.containsKey("axolotl-variant")) {
+            spec.axolotlVariant(constant(Axolotl.Variant.class, definition.get("axolotl-variant"), "axolotl-variant"));
+        }
+        if (definition.containsKey("max-damage")) {
+            spec.maxDamage(integer(definition.get("max-damage"), "max-damage"));
+        }
+        if (definition.containsKey("base-color")) {
+            spec.baseColor(constant(DyeColor.class, definition.get("base-color"), "base-color"));
+        }
+        if (definition.containsKey("bundle-contents")) {
+            for (Object content : list(definition.get("bundle-contents"), "bundle-contents")) {
+                spec.bundleContent(spec(map(content, "bundle-contents")));
+            }
+        }
+        return spec.build();
+    }
+
+    private static boolean isDefinitionFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".yml") || name.endsWith(".yaml") || name.endsWith(".json");
+    }
+
+    private static Map<String, Object> parse(Path file) throws IOException, InvalidConfigurationException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return map(json(JsonParser.parseReader(reader)), file.toString());
+            }
+        }
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.load(file.toFile());
+        return values(yaml);
+    }
+
+    private static Map<String, Object> values(ConfigurationSection section) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            values.put(key, value instanceof ConfigurationSection child ? values(child) : value);
+        }
+        return values;
+    }
+
+    private static Object json(JsonElement element) {
+        if (element instanceof JsonObject object) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                values.put(entry.getKey(), json(entry.getValue()));
+            }
+            return values;
+        }
+        if (element instanceof JsonArray array) {
+            List<Object> values = new ArrayList<>(array.size());
+            for (JsonElement value : array) {
+                values.add(json(value));
+            }
+            return values;
+        }
+        if (element instanceof JsonPrimitive primitive) {
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            return primitive.isNumber() ? primitive.getAsNumber() : primitive.getAsString();
+        }
+        return null;
+    }
+
+    private Component component(Object value, String field) {
+        return miniMessage.deserialize(string(value, field));
+    }
+
+    private static <T extends Keyed> T registryEntry(Registry<T> registry, Object value, String field) {
+        String key = string(value, field).toLowerCase(Locale.ROOT);
+        NamespacedKey namespacedKey = NamespacedKey.fromString(key);
+        T entry = namespacedKey == null ? null : registry.get(namespacedKey);
+        if (entry == null) {
+            throw new IllegalArgumentException("unknown " + field + " " + key);
+        }
+        return entry;
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, Object value, String field) {
+        String name = string(value, field);
+        try {
+            return Enum.valueOf(type, name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + field + " " + name);
+        }
+    }
+
+    private static Color color(Object value) {
+        if (value instanceof Number rgb) {
+            return Color.fromRGB(rgb.intValue());
+        }
+        String hex = string(value, "color");
+        try {
+            return Color.fromRGB(Integer.parseInt(hex.startsWith("#") ? hex.substring(1) : hex, 16));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid color " + hex);
+        }
+    }
+
+    private static String string(Object value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        return value.toString();
+    }
+
+    private static int integer(Object value, String field) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.parseInt(string(value, field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number for " + field + ": " + value);
+        }
+    }
+
+    private static boolean bool(Object value, String field) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        throw new IllegalArgumentException("invalid boolean for " + field + ": " + value);
+    }
+
+    private static List<?> list(Object value, String field) {
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        throw new IllegalArgumentException(field + " has to be a list");
+    }
+
+    private static Map<String, Object> map(Object value, String field) {
+        if (value instanceof ConfigurationSection section) {
+            return values(section);
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            map.forEach((key, entry) -> values.put(String.valueOf(key), entry));
+            return values;
+        }
+        throw new IllegalArgumentException(field + " has to be a section");
+    }
+
+    /**
+     * The outcome of loading one file.
+     *
+     * @param file   The loaded file.
+     * @param loaded The amount of templates loaded from the file.
+     * @param errors One message per definition that could not be loaded, or the reason the whole file failed.
+     * @param nanos  The time spent on this file. Files are loaded concurrently, so these don't add up to {@link Result#nanos()}.
+     */
+    public record FileReport(Path file, int loaded, List<String> errors, long nanos) {
+
+        public FileReport {
+            errors = List.copyOf(errors);
+        }
+
+        public boolean successful() {
+            return errors.isEmpty();
+        }
+    }
+
+    /**
+     * The outcome of a load.
+     *
+     * @param templates The loaded templates by item id, in the order of the files and their definitions.
+     * @param files     One report per file, in the order the files were given.
+     * @param nanos     The wall-clock time of the whole load, i.e. its cost at startup.
+     */
+    public record Result(Map<String, ItemTemplate> templates, List<FileReport> files, long nanos) {
+
+        /**
+         * @return Returns the amount of errors in all files.
+         */
+        public int errorCount() {
+            int count = 0;
+            for (FileReport file : files) {
+                count += file.errors().size();
+            }
+            return count;
+        }
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
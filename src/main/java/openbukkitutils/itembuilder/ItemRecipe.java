@@ -0,0 +1,211 @@
+package openbukkitutils.itembuilder;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable, recorded sequence of item edits that can be replayed onto existing {@link ItemStack}s.
+ * <p>
+ * Record the edits once with {@link #recipe()} and apply them to as many stacks as needed. Every stack costs a single
+ * {@link ItemStack#getItemMeta()} and a single {@link ItemStack#setItemMeta(ItemMeta)}. {@link #applyTo(ItemStack)}
+ * skips stacks the recipe cannot be applied to (air, or a meta type that doesn't match a typed edit) and reports them
+ * by returning false, {@link ItemBuilder#apply(ItemRecipe)} throws for them instead.
+ * </p>
+ * <pre>{@code
+ * ItemRecipe soulbound = ItemRecipe.recipe()
+ *         .appendLore(Component.text("Soulbound"))
+ *         .enchant(Enchantment.UNBREAKING, 3)
+ *         .unbreakable()
+ *         .build();
+ * soulbound.applyTo(player.getInventory().getContents());
+ * }</pre>
+ */
+public final class ItemRecipe {
+
+    private final List<Step> steps;
+    private final List<Class<? extends ItemMeta>> requiredMetaTypes;
+
+    private ItemRecipe(List<Step> steps, List<Class<? extends ItemMeta>> requiredMetaTypes) {
+        this.steps = List.copyOf(steps);
+        this.requiredMetaTypes = List.copyOf(requiredMetaTypes);
+    }
+
+    /**
+     * @return Returns a new recorder for an ItemRecipe.
+     */
+    public static Recorder recipe() {
+        return new Recorder();
+    }
+
+    /**
+     * @param meta The meta to check
+     * @return Returns true if all typed edits of this recipe can be applied to the given meta.
+     */
+    public boolean isCompatible(@Nullable ItemMeta meta) {
+        if (meta == null) {
+            return false;
+        }
+        for (Class<? extends ItemMeta> type : requiredMetaTypes) {
+            if (!type.isInstance(meta)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies this recipe to the given stack.
+     *
+     * @param stack The stack to edit
+     * @return Returns true if the stack was edited, false if it was skipped because it is incompatible.
+     */
+    public boolean applyTo(@Nullable ItemStack stack) {
+        if (stack == null || stack.getType().isAir()) {
+            return false;
+        }
+        ItemMeta meta = stack.getItemMeta();
+        if (!apply(stack, meta)) {
+            return false;
+        }
+        stack.setItemMeta(meta);
+        return true;
+    }
+
+    /**
+     * Applies this recipe to every compatible stack of the array, e.g. the contents of an inventory.
+     * Null entries and incompatible stacks are skipped.
+     *
+     * @param stacks The stacks to edit
+     * @return Returns the amount of stacks that were edited.
+     */
+    public int applyTo(@Nullable ItemStack[] stacks) {
+        int applied = 0;
+        for (ItemStack stack : stacks) {
+            if (applyTo(stack)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Applies the edits to an already fetched meta without writing it to the stack.
+     *
+     * @return Returns false without changing anything if the meta is incompatible.
+     */
+    boolean apply(ItemStack stack, @Nullable ItemMeta meta) {
+        if (!isCompatible(meta)) {
+            return false;
+        }
+        for (Step step : steps) {
+            step.apply(stack, meta);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemRecipe[" + steps.size() + " steps, meta types " + requiredMetaTypes + "]";
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(ItemStack stack, ItemMeta meta);
+    }
+
+    /**
+     * Records edits for an {@link ItemRecipe}. The methods mirror the ones of {@link ItemBuilder}.
+     */
+    public static final class Recorder {
+        private final List<Step> steps = new ArrayList<>();
+        private final List<Class<? extends ItemMeta>> requiredMetaTypes = new ArrayList<>();
+
+        private Recorder() {
+        }
+
+        public Recorder name(Component name) {
+            steps.add((stack, meta) -> meta.itemName(name));
+            return this;
+        }
+
+        public Recorder setLore(List<Component> loreLines) {
+            List<Component> lore = List.copyOf(loreLines);
+            steps.add((stack, meta) -> meta.lore(lore));
+            return this;
+        }
+
+        public Recorder setLore(Component... loreLines) {
+            return setLore(Arrays.asList(loreLines));
+        }
+
+        /**
+         * Appends lines to the lore of the edited item. Items without lore get the lines as their new lore.
+         */
+        public Recorder appendLore(Component... loreLines) {
+            List<Component> appended = List.of(loreLines);
+            steps.add((stack, meta) -> {
+                List<Component> lore = meta.lore();
+                if (lore == null) {
+                    meta.lore(appended);
+                } else {
+                    List<Component> newLore = new ArrayList<>(lore.size() + appended.size());
+                    newLore.addAll(lore);
+                    newLore.addAll(appended);
+                    meta.lore(newLore);
+                }
+            });
+            return this;
+        }
+
+        public Recorder enchant(Enchantment enchantment, int level) {
+            steps.add((stack, meta) -> meta.addEnchant(enchantment, level, true));
+            return this;
+        }
+
+        public Recorder removeEnchantment(Enchantment enchantment) {
+            steps.add((stack, meta) -> meta.removeEnchant(enchantment));
+            return this;
+        }
+
+        public Recorder flag(ItemFlag flag) {
+            steps.add((stack, meta) -> meta.addItemFlags(flag));
+            return this;
+        }
+
+        public Recorder unbreakable() {
+            steps.add((stack, meta) -> meta.setUnbreakable(true));
+            return this;
+        }
+
+        public Recorder amount(int amount) {
+            steps.add((stack, meta) -> stack.setAmount(amount));
+            return this;
+        }
+
+        /**
+         * Records an edit of a specific meta type. Stacks whose meta is not of that type are skipped entirely by
+         * {@link ItemRecipe#applyTo(ItemStack)} and rejected by {@link ItemBuilder#apply(ItemRecipe)}.
+         *
+         * @param type   The meta type the edit needs, e.g. {@code Damageable.class}
+         * @param action The edit
+         */
+        public <M extends ItemMeta> Recorder meta(Class<M> type, Consumer<? super M> action) {
+            requiredMetaTypes.add(type);
+            steps.add((stack, meta) -> action.accept(type.cast(meta)));
+            return this;
+        }
+
+        public ItemRecipe build() {
+            return new ItemRecipe(steps, requiredMetaTypes);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy source of items for paginated GUIs over large catalogs.
+ * <p>
+ * Items are only built for the pages that are requested. Requesting a page prefetches the next one in the background,
+ * and pages more than {@code window} pages away from the requested one are dropped, so the memory used is
+ * proportional to the visible pages instead of the size of the catalog.
+ * </p>
+ * <pre>{@code
+ * ItemSource<Offer> offers = new ItemSource<>(catalog, 45, offer -> ItemBuilder.item(offer.material())
+ *         .name(offer.name())
+ *         .setLore(offerLore, offer.placeholders()));
+ * List<ItemStack> items = offers.page(0);
+ * }</pre>
+ * <p>
+ * The builder function is called on the calling thread for {@link #page(int)} and on the executor for prefetched
+ * pages and {@link #pageAsync(int)}, so it must not depend on the main thread, see {@link ItemBuilder}.
+ * The returned item stacks are shared with the page cache, clone them before changing them.
+ * </p>
+ *
+ * @param <T> The type of the catalog entries.
+ */
+public final class ItemSource<T> {
+
+    private static final Executor VIRTUAL_THREADS = Thread::startVirtualThread;
+
+    private final List<? extends T> elements;
+    private final int pageSize;
+    private final int window;
+    private final Function<? super T, ? extends ItemBuilder> builder;
+    private final Executor executor;
+    private final Map<Integer, CompletableFuture<List<ItemStack>>> pages = new HashMap<>();
+
+    /**
+     * Creates a source that keeps the requested page and its direct neighbours and prefetches on virtual threads.
+     *
+     * @param elements The catalog, it should support fast random access.
+     * @param pageSize The amount of items per page.
+     * @param builder  Creates the configured builder for a catalog entry.
+     */
+    public ItemSource(List<? extends T> elements, int pageSize, Function<? super T, ? extends ItemBuilder> builder) {
+        this(elements, pageSize, 1, builder, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param elements The catalog, it should support fast random access.
+     * @param pageSize The amount of items per page.
+     * @param window   How many pages before and after the requested page are kept, at least 1.
+     * @param builder  Creates the configured builder for a catalog entry.
+     * @param executor The executor prefetched pages are built on.
+     */
+    public ItemSource(List<? extends T> elements, int pageSize, int window,
+                      Function<? super T, ? extends ItemBuilder> builder, Executor executor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize has to be positive");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("window has to be at least 1");
+        }
+        this.elements = Objects.requireNonNull(elements, "elements");
+        this.pageSize = pageSize;
+        this.window = window;
+        this.builder = Objects.requireNonNull(builder, "builder");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * @return Returns the amount of entries in the catalog.
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return Returns the amount of pages, at least 1 so an empty catalog still has an (empty) first page.
+     */
+    public int pageCount() {
+        return Math.max(1, (elements.size() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Returns the items of the given page, building them on the calling thread unless they were already prefetched.
+     * The next page is prefetched in the background. If a prefetch of the page is still running, the page is built on
+     * the calling thread as well instead of waiting for the executor, and the prefetch stops at its next item. So this
+     * never waits for another thread, but it always builds on the calling thread if the page isn't ready yet.
+     *
+     * @param page The index of the page, starting at 0.
+     * @return Returns the immutable list of items on the page, the last page may contain fewer than {@link #pageSize()} items.
+     */
+    public List<ItemStack> page(int page) {
+        CompletableFuture<List<ItemStack>> future = request(page, Runnable::run);
+        if (!future.isDone()) {
+            // prefetched, but not finished yet: waiting would stall the calling thread for the whole page
+            load(page, future);
+        }
+        return future.join();
+    }
+
+    /**
+     * Like {@link #page(int)}, but builds the page on the executor.
+     * The future is completed on an executor thread, switch back to the main thread before touching inventories.
+     *
+     * @param page The index of the page, starting at 0.
+     * @return Returns a future completed with the immutable list of items on the page.
+     */
+    public CompletableFuture<List<ItemStack>> pageAsync(int page) {
+        return request(page, executor);
+    }
+
+    /**
+     * Drops all cached pages, e.g. after the catalog changed.
+     */
+    public void invalidate() {
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    /**
+     * Streams the items of the given range of the catalog, building each item only when it is consumed.
+     * The items are not cached. The stream can be made parallel, it splits the range evenly.
+     *
+     * @param fromIndex The index of the first entry, inclusive.
+     * @param toIndex   The index of the last entry, exclusive.
+     * @return Returns a sequential stream of newly built items.
+     */
+    public Stream<ItemStack> stream(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, elements.size());
+        return StreamSupport.stream(new ItemSpliterator(fromIndex, toIndex), false);
+    }
+
+    /**
+     * @return Returns a sequential stream of all items, see {@link #stream(int, int)}.
+     */
+    public Stream<ItemStack> stream() {
+        return stream(0, elements.size());
+    }
+
+    private CompletableFuture<List<ItemStack>> request(int page, Executor pageExecutor) {
+        Objects.checkIndex(page, pageCount());
+        CompletableFuture<List<ItemStack>> requested = new CompletableFuture<>();
+        CompletableFuture<List<ItemStack>> prefetched = null;
+        CompletableFuture<List<ItemStack>> existing;
+        int next = page + 1;
+        synchronized (pages) {
+            existing = pages.putIfAbsent(page, requested);
+            if (next < pageCount() && !pages.containsKey(next)) {
+                prefetched = new CompletableFuture<>();
+                pages.put(next, prefetched);
+            }
+            pages.keySet().removeIf(cached -> cached < page - window || cached > page + window);
+        }
+        ItemBuilderStatistics.Caller caller = ItemBuilderStatistics.captureCaller();
+        if (prefetched != null) {
+            CompletableFuture<List<ItemStack>> nextPage = prefetched;
+            executor.execute(() -> load(next, nextPage, caller));
+        }
+        if (existing != null) {
+            return existing;
+        }
+        pageExecutor.execute(() -> load(page, requested, caller));
+        return requested;
+    }
+
+    private void load(int page, CompletableFuture<List<ItemStack>> future, @Nullable ItemBuilderStatistics.Caller caller) {
+        ItemBuilderStatistics.attributed(caller, () -> {
+            load(page, future);
+            return null;
+        });
+    }
+
+    private void load(int page, CompletableFuture<List<ItemStack>> future) {
+        try {
+            int from = page * pageSize;
+            int to = Math.min(from + pageSize, elements.size());
+            ItemStack[] items = new ItemStack[Math.max(0, to - from)];
+            for (int i = from; i < to; i++) {
+                if (future.isDone()) {
+                    // completed by page() on the thread that needed it
+                    return;
+                }
+                items[i - from] = build(i);
+            }
+            future.complete(List.of(items));
+        } catch (Throwable t) {
+            // don't keep the failure cached, the next request tries again
+            synchronized (pages) {
+                pages.remove(page, future);
+            }
+            future.completeExceptionally(t);
+        }
+    }
+
+    private ItemStack build(int index) {
+        return builder.apply(elements.get(index)).buildSnapshot();
+    }
+
+    private final class ItemSpliterator implements Spliterator<ItemStack> {
+        private int index;
+        private final int end;
+
+        ItemSpliterator(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ItemStack> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(build(index++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<ItemStack> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<ItemStack> prefix = new ItemSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package openbukkitutils.itembuilder;
+
+import net.kyori.adventure.text.Component;
+import openbukkitutils.itembuilder.MaterialCapabilities.Capability;
+import org.bukkit.Color;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Axolotl;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.LeatherArmorMeta;
+import org.bukkit.inventory.meta.trim.ArmorTrim;
+import org.bukkit.potion.PotionEffect;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An immutable, hashable description of an item: everything an {@link ItemBuilder} would apply to it.
+ * Two specs describing the same item are equal, which makes specs usable as cache keys, see {@link ItemCache}.
+ * Specs can be stored and transferred in a compact binary form with {@link ItemSpecCodec}.
+ * <p>
+ * The typed fields are only applied by {@link #toBuilder()} if they are set, and any combination of them is applied
+ * as long as the type supports every one of them, e.g. a shield with patterns, a base color and damage. The banner
+ * color and the potion form (drinkable, splash, lingering, tipped arrow) are part of the {@link #type()}.
+ * </p>
+ *
+ * @param type               The material of the item
+ * @param amount             The amount of the item
+ * @param name               The item name, or null to keep the default name
+ * @param lore               The lore lines
+ * @param enchantments       The enchantments and their levels
+ * @param flags              The item flags
+ * @param unbreakable        Whether the item is unbreakable
+ * @param damage             The damage of a damageable item, or null
+ * @param color              The color of a leather armor piece, or null
+ * @param patterns           The patterns of a banner
+ * @param effects            The custom effects of a potion or tipped arrow
+ * @param trim               The trim of an armor piece, or null
+ * @param owner              The UUID of the owner of a player head, or null
+ * @param storedEnchantments The stored enchantments of an enchanted book
+ * @param axolotlVariant     The variant of an axolotl bucket, or null
+ * @param maxDamage          The maximum damage of a damageable item, or null to keep the default of the type
+ * @param baseColor          The base color of a shield, or null for an undyed shield
+ * @param bundleContents     The items in a bundle, in the order they are added
+ */
+public record ItemSpec(Material type, int amount, @Nullable Component name, List<Component> lore,
+                       Map<Enchantment, Integer> enchantments, Set<ItemFlag> flags, boolean unbreakable,
+                       @Nullable Integer damage, @Nullable Color color, List<Pattern> patterns,
+                       List<PotionEffect> effects, @Nullable ArmorTrim trim, @Nullable UUID owner,
+                       Map<Enchantment, Integer> storedEnchantments, @Nullable Axolotl.Variant axolotlVariant,
+                       @Nullable Integer maxDamage, @Nullable DyeColor baseColor, List<ItemSpec> bundleContents) {
+
+    public ItemSpec {
+        Objects.requireNonNull(type, "type");
+        lore = List.copyOf(lore);
+        enchantments = Map.copyOf(enchantments);
+        flags = Set.copyOf(flags);
+        patterns = List.copyOf(patterns);
+        effects = List.copyOf(effects);
+        storedEnchantments = Map.copyOf(storedEnchantments);
+        bundleContents = List.copyOf(bundleContents);
+    }
+
+    public static Builder spec(Material type) {
+        return new Builder(type);
+    }
+
+    /**
+     * @return Returns a new {@link ItemBuilder} with everything described by this spec applied.
+     * The builder is the most specific typed builder for the type, e.g. a {@link ItemBuilder.ShieldBuilder} for a
+     * shield, typed fields without a method on that builder are applied to its meta.
+     * @throws IllegalArgumentException If a typed field is set that the type doesn't support, e.g. patterns on a
+     *                                  sword, or if the bundle contents don't fit into the bundle.
+     */
+    public ItemBuilder toBuilder() {
+        checkTypedFields();
+        ItemBuilder builder = typedBuilder();
+        builder.amount(amount);
+        if (name != null) {
+            builder.name(name);
+        }
+        if (!lore.isEmpty()) {
+            builder.setLore(lore);
+        }
+        if (!enchantments.isEmpty()) {
+            builder.addEnchantments(enchantments);
+        }
+        for (ItemFlag flag : flags) {
+            builder.flag(flag);
+        }
+        if (unbreakable) {
+            builder.unbreakable();
+        }
+        applyTypedFields(builder);
+        return builder;
+    }
+
+    private void checkTypedFields() {
+        check(!patterns.isEmpty(), has(Capability.BANNER), "patterns");
+        check(baseColor != null, type == Material.SHIELD, "baseColor");
+        check(!effects.isEmpty(), has(Capability.POTION), "effects");
+        check(owner != null, has(Capability.SKULL), "owner");
+        check(color != null, has(Capability.LEATHER_ARMOR), "color");
+        check(trim != null, has(Capability.ARMOR), "trim");
+        check(damage != null, has(Capability.DAMAGEABLE), "damage");
+        check(maxDamage != null, has(Capability.DAMAGEABLE), "maxDamage");
+        check(!storedEnchantments.isEmpty(), has(Capability.ENCHANTMENT_STORAGE), "storedEnchantments");
+        check(axolotlVariant != null, has(Capability.AXOLOTL_BUCKET), "axolotlVariant");
+        check(!bundleContents.isEmpty(), has(Capability.BUNDLE), "bundleContents");
+    }
+
+    private void check(boolean set, boolean applicable, String field) {
+        if (set && !applicable) {
+            throw new IllegalArgumentException(field + " can't be applied to " + type);
+        }
+    }
+
+    private boolean has(Capability capability) {
+        return MaterialCapabilities.has(type, capability);
+    }
+
+    /**
+     * @return Returns the most specific builder for the type. Only fields its constructor needs are applied here.
+     */
+    private ItemBuilder typedBuilder() {
+        if (type == Material.SHIELD) {
+            return ItemBuilder.editShield(new ItemStack(type));
+        }
+        if (has(Capability.BANNER)) {
+            return ItemBuilder.editBanner(new ItemStack(type));
+        }
+        if (has(Capability.POTION)) {
+            return ItemBuilder.editPotion(new ItemStack(type));
+        }
+        if (has(Capability.SKULL)) {
+            return ItemBuilder.editPlayerHead(new ItemStack(type));
+        }
+        if (has(Capability.ENCHANTMENT_STORAGE)) {
+            return ItemBuilder.enchantedBook().reset(type);
+        }
+        if (axolotlVariant != null) {
+            return ItemBuilder.axolotlBucket(axolotlVariant);
+        }
+        if (has(Capability.BUNDLE)) {
+            return ItemBuilder.bundle().reset(type);
+        }
+        if (color != null && has(Capability.ARMOR)) {
+            return ItemBuilder.leatherArmor(type, color);
+        }
+        if (has(Capability.ARMOR) && has(Capability.DAMAGEABLE)) {
+            return ItemBuilder.armor(type);
+        }
+        if (damage != null || maxDamage != null) {
+            return ItemBuilder.damageable(type);
+        }
+        return ItemBuilder.item(type);
+    }
+
+    /**
+     * Applies every typed field, after {@link #checkTypedFields()} made sure the builder's meta supports them.
+     */
+    private void applyTypedFields(ItemBuilder builder) {
+        if (!patterns.isEmpty()) {
+            ((ItemBuilder.BannerBuilder) builder).patterns(patterns);
+        }
+        if (baseColor != null) {
+            ((ItemBuilder.ShieldBuilder) builder).backgroundColor(baseColor);
+        }
+        for (PotionEffect effect : effects) {
+            ((ItemBuilder.PotionBuilder) builder).effect(effect);
+        }
+        if (owner != null) {
+            ((ItemBuilder.PlayerHeadBuilder) builder).owningPlayer(owner);
+        }
+        if (color != null && !(builder instanceof ItemBuilder.LeatherArmorBuilder)) {
+            // leather horse armor is colored, but not an armor piece
+            ((LeatherArmorMeta) builder.meta()).setColor(color);
+        }
+        if (trim != null) {
+            ((ItemBuilder.ArmorBuilder) builder).setTrim(trim);
+        }
+        if (damage != null) {
+            if (builder instanceof ItemBuilder.DamageableItemBuilder damageable) {
+                damageable.damage(damage);
+            } else {
+                ((Damageable) builder.meta()).setDamage(damage);
+            }
+        }
+        if (maxDamage != null) {
+            ((Damageable) builder.meta()).setMaxDamage(maxDamage);
+        }
+        if (!storedEnchantments.isEmpty()) {
+            ((ItemBuilder.EnchantedBookBuilder) builder).storeEnchants(EnchantmentSet.of(storedEnchantments));
+        }
+        for (ItemSpec content : bundleContents) {
+            ItemBuilder.BundleBuilder bundle = (ItemBuilder.BundleBuilder) builder;
+            ItemBuilder contentBuilder = content.toBuilder();
+            // nested bundles know their weight, only plain items are weighed
+            boolean added = contentBuilder instanceof ItemBuilder.BundleBuilder nested
+                    ? bundle.tryAddBundle(nested)
+                    : bundle.tryAddItem(contentBuilder.build());
+            if (!added) {
+                throw new IllegalArgumentException("bundleContents don't fit into the bundle");
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final Material type;
+        private int amount = 1;
+        private Component name;
+        private final List<Component> lore = new ArrayList<>();
+        private final Map<Enchantment, Integer> enchantments = new HashMap<>();
+        private final Set<ItemFlag> flags = EnumSet.noneOf(ItemFlag.class);
+        private boolean unbreakable;
+        private Integer damage;
+        private Color color;
+        private final List<Pattern> patterns = new ArrayList<>();
+        private final List<PotionEffect> effects = new ArrayList<>();
+        private ArmorTrim trim;
+        private UUID owner;
+        private final Map<Enchantment, Integer> storedEnchantments = new HashMap<>();
+        private Axolotl.Variant axolotlVariant;
+        private Integer maxDamage;
+        private DyeColor baseColor;
+        private final List<ItemSpec> bundleContents = new ArrayList<>();
+
+        private Builder(Material type) {
+            this.type = type;
+        }
+
+        public Builder amount(int amount) {
+            this.amount = amount;
+            return this;
+        }
+
+        public Builder name(Component name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder lore(List<Component> loreLines) {
+            this.lore.clear();
+            this.lore.addAll(loreLines);
+            return this;
+        }
+
+        public Builder lore(Component... loreLines) {
+            return lore(Arrays.asList(loreLines));
+        }
+
+        public Builder enchant(Enchantment enchantment, int level) {
+            this.enchantments.put(enchantment, level);
+            return this;
+        }
+
+        public Builder flag(ItemFlag flag) {
+            this.flags.add(flag);
+            return this;
+        }
+
+        public Builder unbreakable() {
+            this.unbreakable = true;
+            return this;
+        }
+
+        public Builder damage(int damage) {
+            this.damage = damage;
+            return this;
+        }
+
+        public Builder color(Color color) {
+            this.color = color;
+            return this;
+        }
+
+        public Builder pattern(Pattern pattern) {
+            this.patterns.add(pattern);
+            return this;
+        }
+
+        public Builder effect(PotionEffect effect) {
+            this.effects.add(effect);
+            return this;
+        }
+
+        public Builder trim(ArmorTrim trim) {
+            this.trim = trim;
+            return this;
+        }
+
+        public Builder owner(UUID owner) {
+            this.owner = owner;
+            return this;
+        }
+
+        public Builder storeEnchant(Enchantment enchantment, int level) {
+            this.storedEnchantments.put(enchantment, level);
+            return this;
+        }
+
+        public Builder axolotlVariant(Axolotl.Variant variant) {
+            this.axolotlVariant = variant;
+            return this;
+        }
+
+        public Builder maxDamage(int maxDamage) {
+            this.maxDamage = maxDamage;
+            return this;
+        }
+
+        public Builder baseColor(DyeColor baseColor) {
+            this.baseColor = baseColor;
+            return this;
+        }
+
+        public Builder bundleContent(ItemSpec content) {
+            this.bundleContents.add(content);
+            return this;
+        }
+
+        public ItemSpec build() {
+            return new ItemSpec(type, amount, name, lore, enchantments, flags, unbreakable, damage, color, patterns,
+                    effects, trim, owner, storedEnchantments, axolotlVariant, maxDamage, baseColor, bundleContents);
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package openbukkitutils.itembuilder;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.bukkit.Color;
+import org.bukkit.DyeColor;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.banner.PatternType;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Axolotl;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.trim.ArmorTrim;
+import org.bukkit.inventory.meta.trim.TrimMaterial;
+import org.bukkit.inventory.meta.trim.TrimPattern;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Compact, versioned binary format for {@link ItemSpec}s.
+ * <p>
+ * A stream starts with a header ({@link #writeHeader(ByteBuffer)}) followed by any amount of specs. Every spec only
+ * stores the fields that are set, registry entries are stored by key, enum constants by name and components as JSON,
+ * so streams stay valid between server versions that add or reorder constants. Specs are written to and
+ * read from {@link ByteBuffer}s directly, so a whole catalog can be decoded from a single (e.g. memory-mapped) buffer
+ * with {@link #readAll(ByteBuffer, Consumer)} or {@link #readFile(Path, Consumer)}.
+ * </p>
+ * <p>
+ * A codec remembers the components and registry entries it has already converted, which makes catalogs with repeated
+ * lore lines and enchantments fast to encode and decode. A codec is therefore not thread-safe, use one per thread.
+ * </p>
+ */
+public final class ItemSpecCodec {
+
+    /**
+     * The version of the format. Streams with another version can't be read.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x49425350; // "IBSP"
+
+    private static final int NAME = 1;
+    private static final int LORE = 1 << 1;
+    private static final int ENCHANTMENTS = 1 << 2;
+    private static final int FLAGS = 1 << 3;
+    private static final int UNBREAKABLE = 1 << 4;
+    private static final int DAMAGE = 1 << 5;
+    private static final int COLOR = 1 << 6;
+    private static final int PATTERNS = 1 << 7;
+    private static final int EFFECTS = 1 << 8;
+    private static final int TRIM = 1 << 9;
+    private static final int OWNER = 1 << 10;
+    private static final int STORED_ENCHANTMENTS = 1 << 11;
+    private static final int AXOLOTL_VARIANT = 1 << 12;
+    private static final int MAX_DAMAGE = 1 << 13;
+    private static final int BASE_COLOR = 1 << 14;
+    private static final int BUNDLE_CONTENTS = 1 << 15;
+
+    private final Map<Component, String> encodedComponents = new HashMap<>();
+    private final Map<String, Component> decodedComponents = new HashMap<>();
+    private final Map<String, Material> materials = new HashMap<>();
+    private final Map<String, Enchantment> enchantments = new HashMap<>();
+    private final Map<String, PatternType> patternTypes = new HashMap<>();
+    private final Map<String, PotionEffectType> effectTypes = new HashMap<>();
+    private final Map<String, TrimMaterial> trimMaterials = new HashMap<>();
+    private final Map<String, TrimPattern> trimPatterns = new HashMap<>();
+    private byte[] scratch = new byte[256];
+
+    public void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+    }
+
+    /**
+     * Reads and checks the header of a stream.
+     *
+     * @return Returns the version of the stream.
+     * @throws IllegalArgumentException If the buffer doesn't start with a header of a supported version.
+     */
+    public int readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < 5 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an item spec stream");
+        }
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported item spec version " + version + ", supported is " + VERSION);
+        }
+        return version;
+    }
+
+    /**
+     * Writes the spec at the position of the buffer.
+     *
+     * @throws BufferOverflowException If the buffer is too small. The position of the buffer is undefined afterwards.
+     */
+    public void write(ItemSpec spec, ByteBuffer buffer) {
+        writeString(buffer, spec.type().name());
+        writeVarInt(buffer, fields(spec));
+        writeVarInt(buffer, spec.amount());
+        if (spec.name() != null) {
+            writeComponent(buffer, spec.name());
+        }
+        if (!spec.lore().isEmpty()) {
+            writeVarInt(buffer, spec.lore().size());
+            for (Component line : spec.lore()) {
+                writeComponent(buffer, line);
+            }
+        }
+        if (!spec.enchantments().isEmpty()) {
+            writeEnchantments(buffer, spec.enchantments());
+        }
+        if (!spec.flags().isEmpty()) {
+            writeVarInt(buffer, spec.flags().size());
+            for (ItemFlag flag : spec.flags()) {
+                writeString(buffer, flag.name());
+            }
+        }
+        if (spec.damage() != null) {
+            writeVarInt(buffer, spec.damage());
+        }
+        if (spec.color() != null) {
+            buffer.putInt(spec.color().asRGB());
+        }
+        if (!spec.patterns().isEmpty()) {
+            writeVarInt(buffer, spec.patterns().size());
+            for (Pattern pattern : spec.patterns()) {
+                writeString(buffer, pattern.getColor().name());
+                writeKey(buffer, pattern.getPattern());
+            }
+        }
+        if (!spec.effects().isEmpty()) {
+            writeVarInt(buffer, spec.effects().size());
+            for (PotionEffect effect : spec.effects()) {
+                writeKey(buffer, effect.getType());
+                writeVarInt(buffer, zigZag(effect.getDuration()));
+                writeVarInt(buffer, zigZag(effect.getAmplifier()));
+                buffer.put((byte) ((effect.isAmbient() ? 1 : 0)
+                        | (effect.hasParticles() ? 2 : 0)
+                        | (effect.hasIcon() ? 4 : 0)));
+            }
+        }
+        if (spec.trim() != null) {
+            writeKey(buffer, spec.trim().getMaterial());
+            writeKey(buffer, spec.trim().getPattern());
+        }
+        if (spec.owner() != null) {
+            buffer.putLong(spec.owner().getMostSignificantBits());
+            buffer.putLong(spec.owner().getLeastSignificantBits());
+        }
+        if (!spec.storedEnchantments().isEmpty()) {
+            writeEnchantments(buffer, spec.storedEnchantments());
+        }
+        if (spec.axolotlVariant() != null) {
+            writeString(buffer, spec.axolotlVariant().name());
+        }
+        if (spec.maxDamage() != null) {
+            writeVarInt(buffer, spec.maxDamage());
+        }
+        if (spec.baseColor() != null) {
+            writeString(buffer, spec.baseColor().name());
+        }
+        if (!spec.bundleContents().isEmpty()) {
+            writeVarInt(buffer, spec.bundleContents().size());
+            for (ItemSpec content : spec.bundleContents()) {
+                write(content, buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads the spec at the position of the buffer.
+     *
+     * @throws IllegalArgumentException If the spec is truncated or malformed, or references a material, enum
+     *                                  constant or registry entry that doesn't exist. The position of the buffer is
+     *                                  undefined afterwards.
+     */
+    public ItemSpec read(ByteBuffer buffer) {
+        try {
+            return readSpec(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated item spec at position " + buffer.position(), e);
+        }
+    }
+
+    private ItemSpec readSpec(ByteBuffer buffer) {
+        String typeName = readString(buffer);
+        Material type = materials.computeIfAbsent(typeName, Material::getMaterial);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown material " + typeName);
+        }
+        ItemSpec.Builder spec = ItemSpec.spec(type);
+        int fields = readVarInt(buffer);
+        spec.amount(readVarInt(buffer));
+        if ((fields & NAME) != 0) {
+            spec.name(readComponent(buffer));
+        }
+        if ((fields & LORE) != 0) {
+            int size = readVarInt(buffer);
+            List<Component> lore = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                lore.add(readComponent(buffer));
+            }
+            spec.lore(lore);
+        }
+        if ((fields & ENCHANTMENTS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                spec.enchant(readKey(buffer, Registry.ENCHANTMENT, enchantments), readVarInt(buffer));
+            }
+        }
+        if ((fields & FLAGS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                spec.flag(readEnum(buffer, ItemFlag.class));
+            }
+        }
+        if ((fields & UNBREAKABLE) != 0) {
+            spec.unbreakable();
+        }
+        if ((fields & DAMAGE) != 0) {
+            spec.damage(readVarInt(buffer));
+        }
+        if ((fields & COLOR) != 0) {
+            spec.color(Color.fromRGB(buffer.getInt()));
+        }
+        if ((fields & PATTERNS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                DyeColor color = readEnum(buffer, DyeColor.class);
+                spec.pattern(new Pattern(color, readKey(buffer, Registry.BANNER_PATTERN, patternTypes)));
+            }
+        }
+        if ((fields & EFFECTS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                PotionEffectType effectType = readKey(buffer, Registry.EFFECT, effectTypes);
+                int duration = unZigZag(readVarInt(buffer));
+                int amplifier = unZigZag(readVarInt(buffer));
+                byte flags = buffer.get();
+                spec.effect(new PotionEffect(effectType, duration, amplifier,
+                        (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0));
+            }
+        }
+        if ((fields & TRIM) != 0) {
+            TrimMaterial material = readKey(buffer, Registry.TRIM_MATERIAL, trimMaterials);
+            TrimPattern pattern = readKey(buffer, Registry.TRIM_PATTERN, trimPatterns);
+            spec.trim(new ArmorTrim(material, pattern));
+        }
+        if ((fields & OWNER) != 0) {
+            spec.owner(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        if ((fields & STORED_ENCHANTMENTS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                spec.storeEnchant(readKey(buffer, Registry.ENCHANTMENT, enchantments), readVarInt(buffer));
+            }
+        }
+        if ((fields & AXOLOTL_VARIANT) != 0) {
+            spec.axolotlVariant(readEnum(buffer, Axolotl.Variant.class));
+        }
+        if ((fields & MAX_DAMAGE) != 0) {
+            spec.maxDamage(readVarInt(buffer));
+        }
+        if ((fields & BASE_COLOR) != 0) {
+            spec.baseColor(readEnum(buffer, DyeColor.class));
+        }
+        if ((fields & BUNDLE_CONTENTS) != 0) {
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                spec.bundleContent(readSpec(buffer));
+            }
+        }
+        return spec.build();
+    }
+
+    /**
+     * Reads the header and then all specs until the end of the buffer.
+     *
+     * @param consumer Receives the specs in the order they were written.
+     * @throws IllegalArgumentException If the header or a spec can't be read, see {@link #read(ByteBuffer)}.
+     */
+    public void readAll(ByteBuffer buffer, Consumer<ItemSpec> consumer) {
+        readHeader(buffer);
+        while (buffer.hasRemaining()) {
+            consumer.accept(read(buffer));
+        }
+    }
+
+    /**
+     * Encodes the specs into a new buffer, including the header.
+     *
+     * @return Returns a buffer ready to be read, positioned at the header.
+     */
+    public ByteBuffer encode(Collection<ItemSpec> specs) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(64, specs.size() * 64));
+        writeHeader(buffer);
+        for (ItemSpec spec : specs) {
+            while (true) {
+                int start = buffer.position();
+                try {
+                    write(spec, buffer);
+                    break;
+                } catch (BufferOverflowException e) {
+                    buffer.position(start);
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                }
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes the specs into a file, replacing its content.
+     */
+    public static void writeFile(Path file, Collection<ItemSpec> specs) throws IOException {
+        ByteBuffer buffer = new ItemSpecCodec().encode(specs);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps the file and decodes all specs in it.
+     *
+     * @param consumer Receives the specs in the order they were written.
+     */
+    public static void readFile(Path file, Consumer<ItemSpec> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            new ItemSpecCodec().readAll(buffer, consumer);
+        }
+    }
+
+    private static int fields(ItemSpec spec) {
+        int fields = 0;
+        if (spec.name() != null) fields |= NAME;
+        if (!spec.lore().isEmpty()) fields |= LORE;
+        if (!spec.enchantments().isEmpty()) fields |= ENCHANTMENTS;
+        if (!spec.flags().isEmpty()) fields |= FLAGS;
+        if (spec.unbreakable()) fields |= UNBREAKABLE;
+        if (spec.damage() != null) fields |= DAMAGE;
+        if (spec.color() != null) fields |= COLOR;
+        if (!spec.patterns().isEmpty()) fields |= PATTERNS;
+        if (!spec.effects().isEmpty()) fields |= EFFECTS;
+        if (spec.trim() != null) fields |= TRIM;
+        if (spec.owner() != null) fields |= OWNER;
+        if (!spec.storedEnchantments().isEmpty()) fields |= STORED_ENCHANTMENTS;
+        if (spec.axolotlVariant() != null) fields |= AXOLOTL_VARIANT;
+        if (spec.maxDamage() != null) fields |= MAX_DAMAGE;
+        if (spec.baseColor() != null) fields |= BASE_COLOR;
+        if (!spec.bundleContents().isEmpty()) fields |= BUNDLE_CONTENTS;
+        return fields;
+    }
+
+    private void writeEnchantments(ByteBuffer buffer, Map<Enchantment, Integer> enchantments) {
+        writeVarInt(buffer, enchantments.size());
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            writeKey(buffer, entry.getKey());
+            writeVarInt(buffer, entry.getValue());
+        }
+    }
+
+    private void writeComponent(ByteBuffer buffer, Component component) {
+        writeString(buffer, encodedComponents.computeIfAbsent(component, GsonComponentSerializer.gson()::serialize));
+    }
+
+    private Component readComponent(ByteBuffer buffer) {
+        return decodedComponents.computeIfAbsent(readString(buffer), GsonComponentSerializer.gson()::deserialize);
+    }
+
+    private <E extends Enum<E>> E readEnum(ByteBuffer buffer, Class<E> type) {
+        String name = readString(buffer);
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " " + name, e);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void writeKey(ByteBuffer buffer, Keyed keyed) {
+        writeString(buffer, keyed.getKey().asString());
+    }
+
+    private <T extends Keyed> T readKey(ByteBuffer buffer, Registry<T> registry, Map<String, T> known) {
+        String key = readString(buffer);
+        T value = known.get(key);
+        if (value == null) {
+            NamespacedKey namespacedKey = NamespacedKey.fromString(key);
+            value = namespacedKey == null ? null : registry.get(namespacedKey);
+            if (value == null) {
+                throw new IllegalArgumentException("Unknown registry entry " + key);
+            }
+            known.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Writes the string as UTF-8 directly into the buffer, prefixed with its length in bytes.
+     */
+    private static void writeString(ByteBuffer buffer, String string) {
+        writeVarInt(buffer, utf8Length(string));
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                    buffer.put((byte) (0xF0 | codePoint >> 18));
+                    buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    // Unpaired surrogate, replaced like the JDK encoder does
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length++;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (buffer.hasArray()) {
+            String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return string;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarInt is too long");
+    }
+
+    private static int zigZag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static int unZigZag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
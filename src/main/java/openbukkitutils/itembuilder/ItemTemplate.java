@@ -0,0 +1,77 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * An immutable, fully built {@link ItemStack} produced by {@link ItemBuilder#toTemplate()}.
+ * <p>
+ * All meta mutations of the builder have already been applied, so creating an item from a template only costs a
+ * single copy of the stored stack. Build templates once (e.g. when your plugin enables) and call {@link #create()}
+ * every time you need the item.
+ * </p>
+ * <p>
+ * Templates are immutable and thread-safe, {@link #create()} can be called from any number of threads at once.
+ * </p>
+ */
+public final class ItemTemplate {
+
+    private final ItemStack stack;
+    private volatile int bundleWeight = -1;
+
+    ItemTemplate(ItemStack stack) {
+        this.stack = stack;
+    }
+
+    /**
+     * @return Returns a new copy of the templated item.
+     */
+    public ItemStack create() {
+        return stack.clone();
+    }
+
+    /**
+     * @param amount The amount of the returned item stack.
+     * @return Returns a new copy of the templated item with the given amount.
+     */
+    public ItemStack create(int amount) {
+        ItemStack copy = stack.clone();
+        copy.setAmount(amount);
+        return copy;
+    }
+
+    /**
+     * @return Returns a new {@link ItemBuilder} working on a copy of the templated item.
+     */
+    public ItemBuilder toBuilder() {
+        return ItemBuilder.fromTemplate(stack);
+    }
+
+    public Material getType() {
+        return stack.getType();
+    }
+
+    public int getAmount() {
+        return stack.getAmount();
+    }
+
+    /**
+     * @return Returns the weight of the templated item inside a bundle, computed on first use.
+     */
+    int bundleWeight() {
+        int weight = bundleWeight;
+        if (weight == -1) {
+            weight = ItemBuilder.BundleBuilder.weightOf(stack);
+            bundleWeight = weight;
+        }
+        return weight;
+    }
+
+    /**
+     * @param other The item stack to compare.
+     * @return Returns true if the given stack is similar to the templated item, ignoring the amount.
+     */
+    public boolean isSimilar(ItemStack other) {
+        return stack.isSimilar(other);
+    }
+}
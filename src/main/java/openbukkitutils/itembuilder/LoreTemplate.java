@@ -0,0 +1,245 @@
+package openbukkitutils.itembuilder;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.format.Style;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lore that is parsed once and rendered many times with different placeholder values.
+ * <p>
+ * Placeholders are written as {@code {name}} in the line patterns. Lines without placeholders are created once and
+ * shared by every render, lines with placeholders only allocate a new line component holding the precomputed static
+ * spans and the placeholder values. Rendered lores are cached per set of placeholder values, the least recently used
+ * ones are evicted once the cache is full.
+ * </p>
+ * <pre>{@code
+ * LoreTemplate shopLore = LoreTemplate.builder()
+ *         .line(Style.style(NamedTextColor.GRAY), "Price: {price} coins")
+ *         .line(Style.style(NamedTextColor.GRAY), "Seller: {owner}")
+ *         .staticLine(Component.text("Click to buy", NamedTextColor.YELLOW))
+ *         .build();
+ * builder.setLore(shopLore, Map.of("price", Component.text(price), "owner", Component.text(owner)));
+ * }</pre>
+ */
+public final class LoreTemplate {
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final Object[] lines;
+    private final List<String> placeholders;
+    private final Map<String, Integer> placeholderIndexes;
+    private final Component[] unresolved;
+    private final Map<List<Component>, List<Component>> cache;
+    private final List<Component> staticLore;
+
+    private LoreTemplate(List<Object> lines, List<String> placeholders, int cacheSize) {
+        this.lines = lines.toArray();
+        this.placeholders = List.copyOf(placeholders);
+        this.placeholderIndexes = new HashMap<>();
+        this.unresolved = new Component[placeholders.size()];
+        for (int i = 0; i < unresolved.length; i++) {
+            placeholderIndexes.put(placeholders.get(i), i);
+            unresolved[i] = Component.text('{' + placeholders.get(i) + '}');
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Component>, List<Component>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.staticLore = placeholders.isEmpty() ? render(unresolved) : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Returns the names of all placeholders used in this template, in order of first appearance.
+     */
+    public List<String> placeholders() {
+        return placeholders;
+    }
+
+    /**
+     * Renders the lore with the given placeholder values.
+     * Placeholders without a value are rendered as their literal {@code {name}}.
+     *
+     * @param values The placeholder values by placeholder name.
+     * @return Returns the rendered, immutable lore.
+     */
+    public List<Component> render(Map<String, ? extends ComponentLike> values) {
+        if (staticLore != null) {
+            return staticLore;
+        }
+        Component[] resolved = unresolved.clone();
+        for (Map.Entry<String, ? extends ComponentLike> entry : values.entrySet()) {
+            Integer index = placeholderIndexes.get(entry.getKey());
+            if (index != null) {
+                resolved[index] = entry.getValue().asComponent();
+            }
+        }
+        return renderCached(resolved);
+    }
+
+    /**
+     * Renders the lore with the given placeholder values in the order of {@link #placeholders()}.
+     *
+     * @param values The placeholder values. Missing trailing values are rendered as their literal {@code {name}}.
+     * @return Returns the rendered, immutable lore.
+     */
+    public List<Component> render(ComponentLike... values) {
+        if (staticLore != null) {
+            return staticLore;
+        }
+        Component[] resolved = unresolved.clone();
+        for (int i = 0; i < Math.min(values.length, resolved.length); i++) {
+            resolved[i] = values[i].asComponent();
+        }
+        return renderCached(resolved);
+    }
+
+    private List<Component> renderCached(Component[] resolved) {
+        List<Component> key = Arrays.asList(resolved);
+        synchronized (cache) {
+            List<Component> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<Component> rendered = render(resolved);
+        synchronized (cache) {
+            cache.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    private List<Component> render(Component[] resolved) {
+        Component[] lore = new Component[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] instanceof Component line) {
+                lore[i] = line;
+            } else {
+                lore[i] = ((DynamicLine) lines[i]).render(resolved);
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(lore));
+    }
+
+    /**
+     * A line containing placeholders. Every part is either a precomputed {@link Component} or the {@link Integer}
+     * index of a placeholder.
+     */
+    private record DynamicLine(Style style, Object[] parts) {
+
+        Component render(Component[] resolved) {
+            List<Component> children = new ArrayList<>(parts.length);
+            for (Object part : parts) {
+                children.add(part instanceof Integer index ? resolved[index] : (Component) part);
+            }
+            return Component.text().style(style).append(children).build();
+        }
+    }
+
+    public static final class Builder {
+        private final List<Object> lines = new ArrayList<>();
+        private final List<String> placeholders = new ArrayList<>();
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a line that is used as is, without looking for placeholders.
+         */
+        public Builder staticLine(Component line) {
+            lines.add(line);
+            return this;
+        }
+
+        /**
+         * Adds an unstyled line, see {@link #line(Style, String)}.
+         */
+        public Builder line(String pattern) {
+            return line(Style.empty(), pattern);
+        }
+
+        /**
+         * Adds a line that may contain {@code {name}} placeholders.
+         *
+         * @param style   The style of the whole line, placeholder values inherit it.
+         * @param pattern The text of the line.
+         */
+        public Builder line(Style style, String pattern) {
+            List<Object> parts = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                int end = c == '{' ? pattern.indexOf('}', i + 1) : -1;
+                if (end > i + 1 && isPlaceholderName(pattern, i + 1, end)) {
+                    if (!text.isEmpty()) {
+                        parts.add(Component.text(text.toString()));
+                        text.setLength(0);
+                    }
+                    parts.add(placeholderIndex(pattern.substring(i + 1, end)));
+                    i = end + 1;
+                } else {
+                    text.append(c);
+                    i++;
+                }
+            }
+            if (parts.isEmpty()) {
+                lines.add(Component.text(text.toString(), style));
+                return this;
+            }
+            if (!text.isEmpty()) {
+                parts.add(Component.text(text.toString()));
+            }
+            lines.add(new DynamicLine(style, parts.toArray()));
+            return this;
+        }
+
+        /**
+         * @param cacheSize The maximum amount of rendered lores kept, 0 to disable the render cache.
+         */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize can't be negative");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public LoreTemplate build() {
+            return new LoreTemplate(lines, placeholders, cacheSize);
+        }
+
+        private int placeholderIndex(String name) {
+            int index = placeholders.indexOf(name);
+            if (index == -1) {
+                placeholders.add(name);
+                index = placeholders.size() - 1;
+            }
+            return index;
+        }
+
+        private static boolean isPlaceholderName(String pattern, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = pattern.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
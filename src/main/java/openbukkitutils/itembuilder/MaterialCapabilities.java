@@ -0,0 +1,99 @@
+package openbukkitutils.itembuilder;
+
+import com.destroystokyo.paper.inventory.meta.ArmorStandMeta;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ArmorMeta;
+import org.bukkit.inventory.meta.AxolotlBucketMeta;
+import org.bukkit.inventory.meta.BannerMeta;
+import org.bukkit.inventory.meta.BookMeta;
+import org.bukkit.inventory.meta.BundleMeta;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.FireworkMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.LeatherArmorMeta;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+/**
+ * A precomputed index of the meta types every {@link Material} supports.
+ * <p>
+ * The index is built once, the first time it is used (the server has to be running by then), by asking the item
+ * factory for the meta of every item material. Afterwards checking whether a typed builder fits a material is a
+ * single array access, no item stack or meta has to be created for it.
+ * </p>
+ */
+public final class MaterialCapabilities {
+
+    private MaterialCapabilities() {
+    }
+
+    /**
+     * The meta types used by the typed builders of {@link ItemBuilder}.
+     */
+    public enum Capability {
+        DAMAGEABLE(Damageable.class),
+        ARMOR(ArmorMeta.class),
+        LEATHER_ARMOR(LeatherArmorMeta.class),
+        BANNER(BannerMeta.class),
+        ARMOR_STAND(ArmorStandMeta.class),
+        AXOLOTL_BUCKET(AxolotlBucketMeta.class),
+        BUNDLE(BundleMeta.class),
+        SKULL(SkullMeta.class),
+        FIREWORK(FireworkMeta.class),
+        BOOK(BookMeta.class),
+        ENCHANTMENT_STORAGE(EnchantmentStorageMeta.class),
+        POTION(PotionMeta.class);
+
+        private final Class<?> metaType;
+        private final int bit = 1 << ordinal();
+
+        Capability(Class<?> metaType) {
+            this.metaType = metaType;
+        }
+
+        /**
+         * @return Returns the meta interface materials with this capability have.
+         */
+        public Class<?> metaType() {
+            return metaType;
+        }
+    }
+
+    /**
+     * @param material   The material to check.
+     * @param capability The capability to look for.
+     * @return Returns true if items of the material have meta of the capability's type.
+     */
+    public static boolean has(Material material, Capability capability) {
+        return (Index.CAPABILITIES[material.ordinal()] & capability.bit) != 0;
+    }
+
+    /**
+     * Holds the index so it's only built on first use.
+     */
+    private static final class Index {
+        private static final int[] CAPABILITIES = build();
+
+        private static int[] build() {
+            Material[] materials = Material.values();
+            Capability[] capabilities = Capability.values();
+            int[] index = new int[materials.length];
+            ItemFactory factory = Bukkit.getItemFactory();
+            for (Material material : materials) {
+                if (material.isLegacy() || !material.isItem() || material.isAir()) {
+                    continue;
+                }
+                ItemMeta meta = factory.getItemMeta(material);
+                for (Capability capability : capabilities) {
+                    if (capability.metaType.isInstance(meta)) {
+                        index[material.ordinal()] |= capability.bit;
+                    }
+                }
+            }
+            return index;
+        }
+    }
+}
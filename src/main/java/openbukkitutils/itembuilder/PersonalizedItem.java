@@ -0,0 +1,79 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * An item that is shared by all players except for a small per-player overlay, e.g. the name, a few lore lines or the
+ * owner of a head. The shared part is a prebuilt {@link ItemTemplate}, the overlay is applied on top of a copy of it.
+ * Rendered items are cached per player by a {@link PlayerItemCache}.
+ * <pre>{@code
+ * PersonalizedItem<ItemBuilder.PlayerHeadBuilder> profileButton = PersonalizedItem.head(profileTemplate,
+ *         (head, player) -> head.profile(player.getPlayerProfile()).name(player.displayName()));
+ * inventory.setItem(4, cache.get(player, profileButton));
+ * }</pre>
+ * <p>
+ * Call {@link #bump()} when the data shown by the overlay changed for everyone, the items of all players are then
+ * rendered again on their next request.
+ * </p>
+ *
+ * @param <B> The type of builder the overlay works on.
+ */
+public final class PersonalizedItem<B extends ItemBuilder> {
+
+    private final ItemTemplate base;
+    private final Function<ItemStack, ? extends B> editor;
+    private final BiConsumer<? super B, ? super Player> overlay;
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * @param base    The shared part of the item.
+     * @param editor  Creates the builder for a copy of the shared item, e.g. {@code ItemBuilder::editPlayerHead}.
+     * @param overlay Applies the per-player part.
+     */
+    public PersonalizedItem(ItemTemplate base, Function<ItemStack, ? extends B> editor,
+                            BiConsumer<? super B, ? super Player> overlay) {
+        this.base = base;
+        this.editor = editor;
+        this.overlay = overlay;
+    }
+
+    public static PersonalizedItem<ItemBuilder> of(ItemTemplate base, BiConsumer<ItemBuilder, Player> overlay) {
+        return new PersonalizedItem<>(base, ItemBuilder::editItem, overlay);
+    }
+
+    public static PersonalizedItem<ItemBuilder.PlayerHeadBuilder> head(ItemTemplate base,
+                                                                        BiConsumer<ItemBuilder.PlayerHeadBuilder, Player> overlay) {
+        return new PersonalizedItem<>(base, ItemBuilder::editPlayerHead, overlay);
+    }
+
+    /**
+     * Marks the rendered items of all players as outdated.
+     */
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return Returns the current version, incremented by every {@link #bump()}.
+     */
+    public int version() {
+        return version.get();
+    }
+
+    /**
+     * Builds the item for the player without any caching.
+     *
+     * @param player The player to personalize the item for.
+     * @return Returns a new item stack.
+     */
+    public ItemStack render(Player player) {
+        B builder = editor.apply(base.create());
+        overlay.accept(builder, player);
+        return builder.build();
+    }
+}
@@ -0,0 +1,507 @@
+package openbukkitutils.itembuilder;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves player heads by name without blocking the calling thread.
+ * <p>
+ * Concurrent lookups of the same name share one future. Lookups are debounced: they are collected for a short
+ * moment and then resolved together, so a menu opening dozens of heads makes a few requests instead of one per head.
+ * Names the server already knows get their UUID from its user cache, the others are looked up in batches of
+ * {@value #NAMES_PER_REQUEST} with Mojang's bulk profile endpoint. The textures still need one call to the session
+ * servers per player, those run on their own virtual threads. Resolved profiles (including their textures) are kept
+ * in a size and time bounded LRU cache, which can be saved to and loaded from a local file to survive restarts.
+ * </p>
+ * <p>
+ * Names that the bulk endpoint reports as unknown are remembered for the missing TTL
+ * ({@link #DEFAULT_MISSING_TTL} by default), so they are not looked up on every open. Failed requests (timeouts,
+ * rate limits, server errors) are retried with an exponential backoff and never cached as missing; after
+ * {@value #MAX_ATTEMPTS} attempts the future is completed exceptionally and the next lookup tries again.
+ * </p>
+ * <p>
+ * Futures are completed on a virtual thread. Switch back to the main thread before touching inventories.
+ * </p>
+ */
+public final class PlayerHeadResolver implements AutoCloseable {
+
+    /**
+     * How long a name that doesn't belong to any player is answered without looking it up again, unless another
+     * duration is passed to the constructor.
+     */
+    public static final Duration DEFAULT_MISSING_TTL = Duration.ofMinutes(5);
+
+    private static final long DEBOUNCE_MILLIS = 50;
+    private static final String TEXTURES = "textures";
+    private static final URI PROFILES_ENDPOINT = URI.create("https://api.mojang.com/profiles/minecraft");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int NAMES_PER_REQUEST = 10;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_BASE_MILLIS = 1000;
+    // the bulk endpoint rejects the whole request if one name can't be a player name
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_]{1,16}");
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final Map<String, CompletableFuture<PlayerProfile>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Map<String, CachedProfile> cache;
+    /**
+     * The names that don't exist with the time they were looked up, guarded by {@link #cache}.
+     */
+    private final Map<String, Long> missing;
+    private final long ttlMillis;
+    private final long missingTtlMillis;
+    private final @Nullable Path cacheFile;
+    private final ItemTemplate placeholder;
+    private volatile boolean closed;
+
+    /**
+     * @param maxCachedProfiles The maximum amount of profiles kept in the cache. The least recently used ones are removed first.
+     * @param ttl               How long a resolved profile is kept before it is looked up again.
+     * @param cacheFile         The file the cache is persisted to, or null to only keep it in memory.
+     */
+    public PlayerHeadResolver(int maxCachedProfiles, Duration ttl, @Nullable Path cacheFile) {
+        this(maxCachedProfiles, ttl, cacheFile, ItemBuilder.item(Material.PLAYER_HEAD).toTemplate());
+    }
+
+    /**
+     * @param maxCachedProfiles The maximum amount of profiles kept in the cache. The least recently used ones are removed first.
+     * @param ttl               How long a resolved profile is kept before it is looked up again.
+     * @param cacheFile         The file the cache is persisted to, or null to only keep it in memory.
+     * @param placeholder       The item returned by {@link #headOrPlaceholder(String)} while a lookup is running.
+     */
+    public PlayerHeadResolver(int maxCachedProfiles, Duration ttl, @Nullable Path cacheFile, ItemTemplate placeholder) {
+        this(maxCachedProfiles, ttl, DEFAULT_MISSING_TTL, cacheFile, placeholder);
+    }
+
+    /**
+     * @param maxCachedProfiles The maximum amount of profiles kept in the cache. The least recently used ones are removed first.
+     * @param ttl               How long a resolved profile is kept before it is looked up again.
+     * @param missingTtl        How long a name without a player is answered without looking it up again.
+     * @param cacheFile         The file the cache is persisted to, or null to only keep it in memory.
+     * @param placeholder       The item returned by {@link #headOrPlaceholder(String)} while a lookup is running.
+     */
+    public PlayerHeadResolver(int maxCachedProfiles, Duration ttl, Duration missingTtl, @Nullable Path cacheFile,
+                              ItemTemplate placeholder) {
+        if (maxCachedProfiles <= 0) {
+            throw new IllegalArgumentException("maxCachedProfiles has to be positive");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                return size() > maxCachedProfiles;
+            }
+        };
+        this.missing = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxCachedProfiles;
+            }
+        };
+        this.ttlMillis = ttl.toMillis();
+        this.missingTtlMillis = missingTtl.toMillis();
+        this.cacheFile = cacheFile;
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * Resolves the profile of the given player, including the skin textures.
+     * If the player does not exist, the future completes with a profile without textures. If the lookup still fails
+     * after its retries, or after {@link #close()}, the future is completed exceptionally.
+     *
+     * @param playerName The name of the player
+     */
+    public CompletableFuture<PlayerProfile> profile(String playerName) {
+        String key = playerName.toLowerCase(Locale.ROOT);
+        CachedProfile cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.toProfile());
+        }
+        if (isMissing(key)) {
+            return CompletableFuture.completedFuture(Bukkit.createProfile(playerName));
+        }
+        CompletableFuture<PlayerProfile> future = new CompletableFuture<>();
+        CompletableFuture<PlayerProfile> running = pending.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        if (closed) {
+            // close() may have drained the pending lookups before this one was added
+            pending.remove(key, future);
+            future.completeExceptionally(closedException());
+            return future;
+        }
+        queue.add(playerName);
+        scheduleDrain();
+        return future;
+    }
+
+    /**
+     * Resolves the head of the given player.
+     *
+     * @param playerName The name of the player
+     */
+    public CompletableFuture<ItemStack> head(String playerName) {
+        return profile(playerName).thenApply(profile -> ItemBuilder.playerHead(profile).build());
+    }
+
+    /**
+     * Returns the head of the given player if its profile is cached, otherwise returns the placeholder and starts
+     * resolving the profile in the background. Never blocks.
+     *
+     * @param playerName The name of the player
+     */
+    public ItemStack headOrPlaceholder(String playerName) {
+        CachedProfile cached = getCached(playerName.toLowerCase(Locale.ROOT));
+        if (cached != null) {
+            return ItemBuilder.playerHead(cached.toProfile()).build();
+        }
+        profile(playerName);
+        return placeholder.create();
+    }
+
+    private @Nullable CachedProfile getCached(String key) {
+        synchronized (cache) {
+            CachedProfile cached = cache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - cached.resolvedAt > ttlMillis) {
+                cache.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private boolean isMissing(String key) {
+        synchronized (cache) {
+            Long lookedUp = missing.get(key);
+            if (lookedUp == null) {
+                return false;
+            }
+            if (System.currentTimeMillis() - lookedUp > missingTtlMillis) {
+                missing.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS, executor)
+                    .execute(this::resolveQueued);
+        }
+    }
+
+    /**
+     * Resolves the queued names: UUIDs the server doesn't know are looked up in bulk, then every player's textures are
+     * fetched on their own virtual thread. Mojang has no bulk endpoint for textures.
+     */
+    private void resolveQueued() {
+        drainScheduled.set(false);
+        List<String> unknown = new ArrayList<>();
+        for (String name = queue.poll(); name != null; name = queue.poll()) {
+            // Players the server already knows don't need a network call for the UUID
+            OfflinePlayer known = Bukkit.getOfflinePlayerIfCached(name);
+            if (known != null) {
+                resolveTextures(name, known.getUniqueId(), 0);
+            } else if (VALID_NAME.matcher(name).matches()) {
+                unknown.add(name);
+            } else {
+                completeMissing(name);
+            }
+        }
+        for (int from = 0; from < unknown.size(); from += NAMES_PER_REQUEST) {
+            List<String> names = List.copyOf(unknown.subList(from, Math.min(from + NAMES_PER_REQUEST, unknown.size())));
+            submit(() -> lookUpIds(names, 0));
+        }
+    }
+
+    /**
+     * Looks up the UUIDs of up to {@value #NAMES_PER_REQUEST} names in one request. Only names left out of a
+     * successful response are missing, failed requests are retried.
+     */
+    private void lookUpIds(List<String> names, int attempt) {
+        JsonArray body = new JsonArray();
+        names.forEach(body::add);
+        HttpRequest request = HttpRequest.newBuilder(PROFILES_ENDPOINT)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        Map<String, UUID> ids;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status == 429 || status >= 500) {
+                retry(names, attempt, new IOException("Profile lookup failed with status " + status),
+                        () -> lookUpIds(names, attempt + 1));
+                return;
+            }
+            if (status != 200) {
+                fail(names, new IOException("Profile lookup was rejected with status " + status));
+                return;
+            }
+            ids = parseIds(response.body());
+        } catch (IOException | RuntimeException e) {
+            // timeouts, dropped connections and truncated responses
+            retry(names, attempt, e, () -> lookUpIds(names, attempt + 1));
+            return;
+        } catch (InterruptedException e) {
+            // close() stops the lookup threads, it completes the futures itself
+            return;
+        }
+        for (String name : names) {
+            UUID id = ids.get(name.toLowerCase(Locale.ROOT));
+            if (id == null) {
+                completeMissing(name);
+            } else {
+                resolveTextures(name, id, 0);
+            }
+        }
+    }
+
+    private static Map<String, UUID> parseIds(String body) {
+        Map<String, UUID> ids = new HashMap<>();
+        for (JsonElement element : JsonParser.parseString(body).getAsJsonArray()) {
+            String id = element.getAsJsonObject().get("id").getAsString();
+            String name = element.getAsJsonObject().get("name").getAsString();
+            // the endpoint returns UUIDs without dashes
+            ids.put(name.toLowerCase(Locale.ROOT), new UUID(Long.parseUnsignedLong(id, 0, 16, 16),
+                    Long.parseUnsignedLong(id, 16, 32, 16)));
+        }
+        return ids;
+    }
+
+    /**
+     * Fetches the textures of an existing player on its own virtual thread, retrying if the session servers fail.
+     */
+    private void resolveTextures(String name, UUID id, int attempt) {
+        submit(() -> {
+            PlayerProfile profile = Bukkit.createProfile(id, name);
+            Throwable failure;
+            try {
+                if (profile.complete(true)) {
+                    completeFound(name, profile);
+                    return;
+                }
+                failure = new IOException("Could not fetch the textures of " + name);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            retry(List.of(name), attempt, failure, () -> resolveTextures(name, id, attempt + 1));
+        });
+    }
+
+    private void retry(List<String> names, int attempt, Throwable failure, Runnable again) {
+        if (attempt + 1 >= MAX_ATTEMPTS) {
+            fail(names, failure);
+            return;
+        }
+        CompletableFuture.delayedExecutor(RETRY_BASE_MILLIS << attempt, TimeUnit.MILLISECONDS)
+                .execute(() -> submit(again));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // closed, close() completed the pending futures already
+        }
+    }
+
+    private void completeFound(String name, PlayerProfile profile) {
+        String key = name.toLowerCase(Locale.ROOT);
+        synchronized (cache) {
+            cache.put(key, CachedProfile.of(profile, System.currentTimeMillis()));
+        }
+        CompletableFuture<PlayerProfile> future = pending.remove(key);
+        if (future != null) {
+            future.complete(profile);
+        }
+    }
+
+    private void completeMissing(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        synchronized (cache) {
+            missing.put(key, System.currentTimeMillis());
+        }
+        CompletableFuture<PlayerProfile> future = pending.remove(key);
+        if (future != null) {
+            future.complete(Bukkit.createProfile(name));
+        }
+    }
+
+    /**
+     * Completes the lookups exceptionally without caching anything, so the next request for the names tries again.
+     */
+    private void fail(List<String> names, Throwable failure) {
+        for (String name : names) {
+            CompletableFuture<PlayerProfile> future = pending.remove(name.toLowerCase(Locale.ROOT));
+            if (future != null) {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Loads the cache from the cache file, skipping expired entries. Does nothing if there is no cache file yet.
+     *
+     * @throws IOException If the file could not be read
+     */
+    public void load() throws IOException {
+        if (cacheFile == null || !Files.exists(cacheFile)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CachedProfile cached = CachedProfile.parse(line);
+                if (cached != null && now - cached.resolvedAt <= ttlMillis) {
+                    synchronized (cache) {
+                        cache.put(cached.name.toLowerCase(Locale.ROOT), cached);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the cache to the cache file. Does nothing if this resolver has no cache file.
+     *
+     * @throws IOException If the file could not be written
+     */
+    public void save() throws IOException {
+        if (cacheFile == null) {
+            return;
+        }
+        List<CachedProfile> snapshot;
+        synchronized (cache) {
+            snapshot = new ArrayList<>(cache.values());
+        }
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (CachedProfile cached : snapshot) {
+                writer.write(cached.serialize());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Stops the lookup threads and saves the cache. Lookups that are still running are completed exceptionally.
+     *
+     * @throws IOException If the cache could not be saved
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        http.shutdownNow();
+        executor.shutdownNow();
+        queue.clear();
+        for (String key : List.copyOf(pending.keySet())) {
+            CompletableFuture<PlayerProfile> future = pending.remove(key);
+            if (future != null) {
+                future.completeExceptionally(closedException());
+            }
+        }
+        save();
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("PlayerHeadResolver was closed");
+    }
+
+    private record CachedProfile(UUID id, String name, @Nullable String textures, @Nullable String signature,
+                                 long resolvedAt) {
+
+        static CachedProfile of(PlayerProfile profile, long resolvedAt) {
+            String textures = null;
+            String signature = null;
+            for (ProfileProperty property : profile.getProperties()) {
+                if (TEXTURES.equals(property.getName())) {
+                    textures = property.getValue();
+                    signature = property.getSignature();
+                }
+            }
+            return new CachedProfile(profile.getId(), profile.getName(), textures, signature, resolvedAt);
+        }
+
+        static @Nullable CachedProfile parse(String line) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new CachedProfile(UUID.fromString(parts[1]), parts[0],
+                        parts[3].isEmpty() ? null : parts[3],
+                        parts[4].isEmpty() ? null : parts[4],
+                        Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        String serialize() {
+            return name + '\t' + id + '\t' + resolvedAt + '\t'
+                    + (textures == null ? "" : textures) + '\t'
+                    + (signature == null ? "" : signature);
+        }
+
+        PlayerProfile toProfile() {
+            PlayerProfile profile = Bukkit.createProfile(id, name);
+            if (textures != null) {
+                profile.setProperty(new ProfileProperty(TEXTURES, textures, signature));
+            }
+            return profile;
+        }
+    }
+}
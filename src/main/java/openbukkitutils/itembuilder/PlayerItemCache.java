@@ -0,0 +1,169 @@
+package openbukkitutils.itembuilder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Caches {@link PersonalizedItem}s per player, so menus can be reopened without rendering their items again.
+ * <p>
+ * A cached item is rendered again when its {@link PersonalizedItem#bump() version} changed or after it was invalidated
+ * explicitly. All items of a player are dropped when the player quits, and once more on the next tick to catch items
+ * rendered while the quit was handled. The cache is thread-safe.
+ * </p>
+ */
+public final class PlayerItemCache implements Listener, AutoCloseable {
+
+    private final Plugin plugin;
+    private final Map<UUID, Map<PersonalizedItem<?>, Rendered>> players = new HashMap<>();
+    /**
+     * Players whose quit is being handled. They are still online during the quit event, so their items aren't cached
+     * until the next tick. Guarded by {@link #players}.
+     */
+    private final Set<UUID> quitting = new HashSet<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates the cache and registers it as a listener, so the items of players are dropped when they quit.
+     *
+     * @param plugin The plugin the listener is registered for.
+     */
+    public PlayerItemCache(Plugin plugin) {
+        this.plugin = plugin;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Returns the item personalized for the player, rendering it if it isn't cached or outdated.
+     *
+     * @param player The player to get the item for.
+     * @param item   The personalized item.
+     * @return Returns a copy of the cached item that can be changed freely.
+     */
+    public ItemStack get(Player player, PersonalizedItem<?> item) {
+        UUID id = player.getUniqueId();
+        int version = item.version();
+        Rendered cached;
+        synchronized (players) {
+            Map<PersonalizedItem<?>, Rendered> items = players.get(id);
+            cached = items == null ? null : items.get(item);
+            if (cached != null && cached.version() == version) {
+                hits++;
+            } else {
+                cached = null;
+                misses++;
+            }
+        }
+        if (cached == null) {
+            cached = new Rendered(item.render(player), version);
+            synchronized (players) {
+                // don't keep items of players that already quit, nothing would remove them. Checked under the lock
+                // onQuit takes, so a quit can't drop the player's items between the check and the put. Players are
+                // still online while their quit event runs, so quitting players are skipped as well
+                if (player.isOnline() && !quitting.contains(id)) {
+                    players.computeIfAbsent(id, ignored -> new HashMap<>()).put(item, cached);
+                }
+            }
+        }
+        return cached.stack().clone();
+    }
+
+    /**
+     * Removes all cached items of the player.
+     */
+    public void invalidate(UUID player) {
+        synchronized (players) {
+            players.remove(player);
+        }
+    }
+
+    /**
+     * Removes the cached item of the player, e.g. after the player's balance changed.
+     */
+    public void invalidate(UUID player, PersonalizedItem<?> item) {
+        synchronized (players) {
+            Map<PersonalizedItem<?>, Rendered> items = players.get(player);
+            if (items != null) {
+                items.remove(item);
+            }
+        }
+    }
+
+    /**
+     * Removes the cached items of all players. The statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (players) {
+            players.clear();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID id = event.getPlayer().getUniqueId();
+        synchronized (players) {
+            quitting.add(id);
+            evict(id);
+        }
+        // the player is offline by then, drop whatever was rendered while the quit was handled. A disabled plugin
+        // can't schedule tasks, the player then stays marked as quitting until the cache is closed
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                synchronized (players) {
+                    quitting.remove(id);
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID id) {
+        Map<PersonalizedItem<?>, Rendered> items = players.remove(id);
+        if (items != null) {
+            evictions += items.size();
+        }
+    }
+
+    /**
+     * @return Returns a snapshot of the counters. Evictions are the items dropped because their player quit,
+     * misses include renders of outdated items.
+     */
+    public ItemCache.Stats stats() {
+        synchronized (players) {
+            int size = 0;
+            for (Map<PersonalizedItem<?>, Rendered> items : players.values()) {
+                size += items.size();
+            }
+            return new ItemCache.Stats(hits, misses, evictions, size);
+        }
+    }
+
+    /**
+     * Unregisters the quit listener and drops all cached items.
+     */
+    @Override
+    public void close() {
+        HandlerList.unregisterAll(this);
+        synchronized (players) {
+            players.clear();
+            quitting.clear();
+        }
+    }
+
+    private record Rendered(ItemStack stack, int version) {
+    }
+}